@@ -0,0 +1,24 @@
+package core.problem;
+
+/**
+ * һ long Ψһ״̬
+ * ܱ״̬пԷŽԭʼ͵ļϣʡȥáϣȽϡ
+ */
+public interface PackedState {
+
+	/**
+	 * ͬһ״ֻ̬һܱ ( 4x4 )Ǵ˷
+	 *
+	 * @return ǰ״̬ܱ뷵 trueĬ true
+	 */
+	default boolean hasKey() {
+		return true;
+	}
+
+	/**
+	 * ״̬ long 룬ͬһ״̬ͬҽ equals
+	 *
+	 * @return ״̬룬 hasKey() Ϊ true ʱ
+	 */
+	long key();
+}
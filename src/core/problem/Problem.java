@@ -1,5 +1,6 @@
 package core.problem;
 
+import core.solver.algorithm.heuristic.IncrementalPredictor;
 import core.solver.algorithm.heuristic.Predictor;
 import core.solver.queue.Node;
 import java.util.ArrayList;
@@ -41,6 +42,14 @@ public abstract class Problem {
      */
     public abstract boolean solvable();
 
+    /**
+     * ÿǷִܱУĴͬ˫ķһһ
+     * @return 棬trueĬ false
+     */
+    public boolean reversible() {
+        return false;
+    }
+
     /**
      * ӳʼ״̬ĸڵ
      * @return ǰĸ
@@ -88,11 +97,19 @@ public abstract class Problem {
      * @return
      */
     public final List<Node> childNodes(Node parent, Predictor predictor) {
-        List<Node> nodes = new ArrayList<>();
-        for (var node : childNodes(parent)) {
+        List<Node> nodes = childNodes(parent);
+        //ֵ֧predictorɸhֵͶֱɨ״̬
+        if (predictor instanceof IncrementalPredictor incremental) {
+            State parentState = parent.getState();
+            for (var node : nodes) {
+                node.setHeuristic(incremental.heuristics(parentState, parent.getHeuristic(), node.getAction(), goal));
+            }
+            return nodes;
+        }
+        for (var node : nodes) {
             //ʹpredictorstateֵ
             int heuristics = predictor.heuristics(node.getState(), goal);
-            nodes.add(node.setHeuristic(heuristics));
+            node.setHeuristic(heuristics);
         }
         return nodes;
     }
@@ -0,0 +1,12 @@
+package core.problem;
+
+/**
+ * ֧ (̹ģ뷶ΧͲ㷨ǰ) ʱ׳
+ * Գֻ쳣⣬ IllegalArgumentException ԰
+ */
+public class UnsupportedProblemException extends IllegalArgumentException {
+
+    public UnsupportedProblemException(String message) {
+        super(message);
+    }
+}
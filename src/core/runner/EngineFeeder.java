@@ -8,7 +8,11 @@ import core.solver.algorithm.heuristic.HeuristicType;
 import core.solver.algorithm.heuristic.Predictor;
 import core.solver.queue.Frontier;
 import stud.queue.StackFrontier;
+import stud.g01.solver.algorithm.searcher.BidirectionalMM;
+import stud.g01.solver.algorithm.searcher.ExternalAStar;
 import stud.g01.solver.algorithm.searcher.IdAStar;
+import stud.g01.solver.algorithm.searcher.RBFS;
+import stud.g01.solver.algorithm.searcher.SMAStar;
 
 import java.util.ArrayList;
 
@@ -54,6 +58,36 @@ public abstract class EngineFeeder {
         return new IdAStar(frontier, predictor);
     }
 
+    /**
+     * Աʵ˫ʽ MMӳʼ״̬Ŀ״̬ͬʱм
+     * Ҫ桢ͬ goal ֵ
+     */
+    public final AbstractSearcher getBidirectional(HeuristicType type) {
+        return new BidirectionalMM(getPredictor(type));
+    }
+
+    /**
+     * Աʵڴ A* 㷨 SMA*ڴ -Dnpuzzle.sma.nodes 
+     */
+    public final AbstractSearcher getSmaStar(HeuristicType type) {
+        return new SMAStar(getPredictor(type));
+    }
+
+    /**
+     * Աʵĵݹ RBFSڴȳԹϵ
+     */
+    public final AbstractSearcher getRbfs(HeuristicType type) {
+        return new RBFS(getPredictor(type));
+    }
+
+    /**
+     * Աʵȵ A* (BFIDA*)״̬ʱļУӳظȥ
+     * ʱĿ¼ڴԤ -Dnpuzzle.external.dir-Dnpuzzle.external.memory 
+     */
+    public final AbstractSearcher getExternal(HeuristicType type) {
+        return new ExternalAStar(getPredictor(type));
+    }
+
     /**
      * ԱʵAStar, ⶼһ
      * ʹòͬ
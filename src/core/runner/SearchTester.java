@@ -1,18 +1,30 @@
 package core.runner;
 
+import algs4.util.Stopwatch;
 import algs4.util.StopwatchCPU;
 import core.problem.Problem;
 import core.problem.ProblemType;
+import core.problem.UnsupportedProblemException;
 import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.algorithm.searcher.SearchMetrics;
 import core.solver.queue.Node;
 import core.solver.algorithm.heuristic.HeuristicType;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 import static core.solver.algorithm.heuristic.HeuristicType.*;
 
@@ -20,14 +32,21 @@ import static core.solver.algorithm.heuristic.HeuristicType.*;
  * ѧ㷨м
  * arg0:       resources/pathfinding.txt
  * arg1:          PATHFINDING
- * arg2: Ŀĸ׶    1
+ * arg2: Ŀĸ׶    1 (5 Ϊ˫ʽ6 Ϊ SMA*7 Ϊ RBFS8 Ϊ BFIDA*)
  * arg3: СFeeder   stud.runner.WalkerFeeder
+ * arg4: ߳  4 (ѡĬΪ 10 ʾʹȫ)
+ * -Dsearch.metrics=json  csv ʱÿָ (SearchMetrics) д resources/metrics.jsonl  resources/metrics.csv
  */
 public final class SearchTester {
+    // ָʽjson  csvδʱ
+    private static final String METRICS_FORMAT = System.getProperty("search.metrics", "");
+    private static final String METRICS_FILE = "csv".equals(METRICS_FORMAT) ? "resources/metrics.csv" : "resources/metrics.jsonl";
+
     //ͬѧǿԸԼҪ޸ġ
     public static void main(String[] args) throws ClassNotFoundException,
             NoSuchMethodException, IllegalAccessException,
-            InvocationTargetException, InstantiationException, FileNotFoundException {
+            InvocationTargetException, InstantiationException, FileNotFoundException,
+            InterruptedException, ExecutionException {
 
 
 
@@ -64,6 +83,13 @@ public final class SearchTester {
         //Ѱ·ֱʹGridEuclidΪ
         ArrayList<HeuristicType> heuristics = getHeuristicTypes(type, step);
 
+        //߳ args[4]ÿ߳ʹøԵsearcher
+        int workers = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        if (workers <= 0) {
+            workers = Runtime.getRuntime().availableProcessors();
+        }
+        startMetrics();
+
         for (HeuristicType heuristicType : heuristics) { 
             //solveProblemsݲͬɲͬsearcher
             //Feederȡʹõ棨AStarIDAStarȣ
@@ -71,13 +97,28 @@ public final class SearchTester {
             //!!!!!!!λһҪû߼⣡
             switch (step) {
                 case 1://һ׶A*㷨
-                    solveProblems(problems, feeder.getAStar(heuristicType),  heuristicType);
+                    solveProblems(problems, () -> feeder.getAStar(heuristicType), heuristicType, workers);
                     break;
                 case 2://׶IDA*㷨
-                    solveProblems(problems, feeder.getIdaStar(heuristicType), heuristicType);
+                    solveProblems(problems, () -> feeder.getIdaStar(heuristicType), heuristicType, workers);
                     break;
                 case 3://׶IDA*㷨
-                    solveProblems(problems, feeder.getIdaStar(heuristicType), heuristicType);
+                    solveProblems(problems, () -> feeder.getIdaStar(heuristicType), heuristicType, workers);
+                    break;
+                case 4://Ľ׶IDA*㷨7-8Disjoint Pattern
+                    solveProblems(problems, () -> feeder.getIdaStar(heuristicType), heuristicType, workers);
+                    break;
+                case 5://˫ʽ MM
+                    solveProblems(problems, () -> feeder.getBidirectional(heuristicType), heuristicType, workers);
+                    break;
+                case 6://ڴ޵ SMA* 㷨
+                    solveProblems(problems, () -> feeder.getSmaStar(heuristicType), heuristicType, workers);
+                    break;
+                case 7://ڴ RBFS 㷨
+                    solveProblems(problems, () -> feeder.getRbfs(heuristicType), heuristicType, workers);
+                    break;
+                case 8:// BFIDA* 㷨ӳظ
+                    solveProblems(problems, () -> feeder.getExternal(heuristicType), heuristicType, workers);
                     break;
                 default:
                     break;
@@ -104,73 +145,195 @@ public final class SearchTester {
             //һ׶Σʹÿλپ룡
             if (step == 1) {
                 heuristics.add(MANHATTAN);
+                heuristics.add(LINEAR_CONFLICT);
+                heuristics.add(WALKING_DISTANCE);
                 heuristics.add(MISPLACED);
             }
             //׶Σʹپ룡
             else if (step == 2) {
                 heuristics.add(MANHATTAN);
+                heuristics.add(LINEAR_CONFLICT);
+                heuristics.add(WALKING_DISTANCE);
                 heuristics.add(MISPLACED);
             }
             //׶ΣʹDisjoint Pattern
             else if (step == 3){
                 heuristics.add(DISJOINT_PATTERN);
             }
+            //Ľ׶Σʹ7-8Disjoint Pattern
+            else if (step == 4){
+                heuristics.add(DISJOINT_PATTERN_78);
+            }
+            //˽׶Σ˫SMA*RBFS BFIDA*˫ķֵԳʼ״̬ΪĿֻ꣬ʹð goal ֵ
+            else if (step == 5 || step == 6 || step == 7 || step == 8){
+                heuristics.add(MANHATTAN);
+                heuristics.add(MISPLACED);
+            }
         }
         return heuristics;
     }
 
     /**
-     * ʹøsearcher⼯е⣬ͬʱʹýõĽм
-     * @param problems     ⼯
-     * @param searcher     searcher
+     * ⼯е⣬ͬʱʹýõĽм
+     * workers  1 ʱָ workers ̲߳⣬ÿ߳ searchers Լ searcher
+     * ԰˳ÿִʱΪ߳õ CPU ʱ
+     * @param problems      ⼯
+     * @param searchers      searcher ķ
      * @param heuristicType ʹ
+     * @param workers       ߳
      */
-    private static void solveProblems(ArrayList<Problem> problems, AbstractSearcher searcher, HeuristicType heuristicType) {
+    private static void solveProblems(ArrayList<Problem> problems, Supplier<AbstractSearcher> searchers,
+                                      HeuristicType heuristicType, int workers)
+            throws InterruptedException, ExecutionException {
         // ļ
         String outputFileName = "resources/output.txt";
         // ڿʼµһֲǰļ
         new File(outputFileName).delete();
 
-        for (Problem problem : problems) {
-            // ʹAStar
-            StopwatchCPU timer1 = new StopwatchCPU();
-            Deque<Node> path = searcher.search(problem);
-            double time1 = timer1.elapsedTime();
-
-            if (path == null) {
-                System.out.println("No Solution" + "ִ" + time1 + "s"+
-                        "" + searcher.nodesGenerated() + "㣬" +
-                        "չ" + searcher.nodesExpanded() + "");
-                continue;
+        if (workers <= 1) {
+            AbstractSearcher searcher = searchers.get();
+            for (int i = 0; i < problems.size(); i++) {
+                report(i, problems.get(i), solve(searcher, problems.get(i)), heuristicType, outputFileName);
             }
+            return;
+        }
 
-            try {
-                ArrayList<core.problem.State> stateList = new ArrayList<>();
-                for (Node node : path) {
-                    stateList.add(node.getState());
-                }
-                stud.g01.problem.npuzzle.PuzzleBoard.saveSolutionToFile(stateList, outputFileName);
-                System.out.println(">> ǰ׷д뵽 " + outputFileName);
-            } catch (Exception e) {
-                System.err.println("ļд: " + e.getMessage());
+        Stopwatch timer = new Stopwatch();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            ThreadLocal<AbstractSearcher> searcher = ThreadLocal.withInitial(searchers);
+            List<Future<Result>> results = new ArrayList<>(problems.size());
+            for (Problem problem : problems) {
+                results.add(pool.submit(() -> solve(searcher.get(), problem)));
             }
+            for (int i = 0; i < problems.size(); i++) {
+                report(i, problems.get(i), results.get(i).get(), heuristicType, outputFileName);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        System.out.println(workers + "̲߳" + problems.size() + "⣬ʱ" + timer.elapsedTime() + "s");
+    }
 
-            // ·Ŀӻ
-            problem.showSolution(path);
+    /**
+     * һ
+     */
+    private static final class Result {
+        private final Deque<Node> path;
+        private final double time;
+        private final String searcher;
+        private final SearchMetrics metrics;
+        // ָ֧ (̹ģ) ʱԭ򣬷Ϊ null
+        private final String unsupported;
 
-            System.out.println("" + heuristicType + "·ȣ" + (path.size() - 1) + "ִ" + time1 + "s" +
-                    "" + searcher.nodesGenerated() + "㣬" +
-                    "չ" + searcher.nodesExpanded() + "");
+        private Result(Deque<Node> path, double time, String searcher, SearchMetrics metrics) {
+            this(path, time, searcher, metrics, null);
+        }
 
+        private Result(Deque<Node> path, double time, String searcher, SearchMetrics metrics, String unsupported) {
+            this.path = path;
+            this.time = time;
+            this.searcher = searcher;
+            this.metrics = metrics;
+            this.unsupported = unsupported;
+        }
+    }
 
-            //ʱ
-//            System.out.println("" + heuristicType + "·ȣ" + (path.size() - 1) + "ִ" + time1 + "s" );
+    /**
+     * searcherһ⣬¼ǰ߳õ CPU ʱ
+     */
+    private static Result solve(AbstractSearcher searcher, Problem problem) {
+        StopwatchCPU timer1 = new StopwatchCPU();
+        Deque<Node> path;
+        try {
+            path = searcher.solve(problem);
+        } catch (UnsupportedProblemException e) {
+            return new Result(null, timer1.elapsedTime(), searcher.getClass().getSimpleName(), searcher.metrics(),
+                    e.getMessage());
+        }
+        double time1 = timer1.elapsedTime();
+        return new Result(path, time1, searcher.getClass().getSimpleName(), searcher.metrics());
+    }
+
+    /**
+     * һѽ·׷дļ
+     */
+    private static void report(int index, Problem problem, Result result, HeuristicType heuristicType, String outputFileName) {
+        if (result.unsupported != null) {
+            System.out.println(result.searcher + " ʹ " + heuristicType + " ޷ " + (index + 1)
+                    + " ⣬" + result.unsupported);
+            return;
+        }
+        writeMetrics(index, result, heuristicType);
+        Deque<Node> path = result.path;
+        if (path == null) {
+            System.out.println("No Solution" + "ִ" + result.time + "s"+
+                    "" + result.metrics.generated() + "㣬" +
+                    "չ" + result.metrics.expanded() + "");
+            return;
+        }
+
+        try {
+            ArrayList<core.problem.State> stateList = new ArrayList<>();
+            for (Node node : path) {
+                stateList.add(node.getState());
+            }
+            stud.g01.problem.npuzzle.PuzzleBoard.saveSolutionToFile(stateList, outputFileName);
+            System.out.println(">> ǰ׷д뵽 " + outputFileName);
+        } catch (Exception e) {
+            System.err.println("ļд: " + e.getMessage());
+        }
+
+        // ·Ŀӻ
+        problem.showSolution(path);
+
+        System.out.println("" + heuristicType + "·ȣ" + (path.size() - 1) + "ִ" + result.time + "s" +
+                "" + result.metrics.generated() + "㣬" +
+                "չ" + result.metrics.expanded() + "");
+
+
+        //ʱ
+//        System.out.println("" + heuristicType + "·ȣ" + (path.size() - 1) + "ִ" + result.time + "s" );
 
 
-            //չ
-//            System.out.println("" + heuristicType + "·ȣ" + (path.size() - 1)  +
-//                    " " + searcher.nodesGenerated() + "㣬" +
-//                    "չ" + searcher.nodesExpanded() + "");
+        //չ
+//        System.out.println("" + heuristicType + "·ȣ" + (path.size() - 1)  +
+//                " " + result.metrics.generated() + "㣬" +
+//                "չ" + result.metrics.expanded() + "");
+    }
+
+    /**
+     * ϴеָļCSV ʽдͷ
+     */
+    private static void startMetrics() throws FileNotFoundException {
+        if (METRICS_FORMAT.isEmpty()) {
+            return;
+        }
+        try (PrintWriter writer = new PrintWriter(METRICS_FILE)) {
+            if ("csv".equals(METRICS_FORMAT)) {
+                writer.println("problem,heuristic,searcher,length,cpuSeconds," + SearchMetrics.csvHeader());
+            }
+        }
+    }
+
+    /**
+     * һָ׷ΪָļеһУ޽ʱ length Ϊ -1
+     */
+    private static void writeMetrics(int index, Result result, HeuristicType heuristicType) {
+        if (METRICS_FORMAT.isEmpty()) {
+            return;
+        }
+        int length = result.path == null ? -1 : result.path.size() - 1;
+        String line = "csv".equals(METRICS_FORMAT)
+                ? (index + 1) + "," + heuristicType + "," + result.searcher + "," + length + "," + result.time
+                        + "," + result.metrics.csvFields()
+                : "{\"problem\":" + (index + 1) + ",\"heuristic\":\"" + heuristicType + "\",\"searcher\":\""
+                        + result.searcher + "\",\"length\":" + length + ",\"cpuSeconds\":" + result.time
+                        + "," + result.metrics.jsonFields() + "}";
+        try (PrintWriter writer = new PrintWriter(new FileWriter(METRICS_FILE, true))) {
+            writer.println(line);
+        } catch (IOException e) {
+            System.err.println("ָд: " + e.getMessage());
         }
     }
 
@@ -4,7 +4,10 @@ public enum HeuristicType {
     //Npuzzle
     MISPLACED,  // λ
     MANHATTAN,  // پ
-    DISJOINT_PATTERN,
+    LINEAR_CONFLICT,      // پ + Գͻ
+    WALKING_DISTANCE,     // Walking Distanceݺĸֱ
+    DISJOINT_PATTERN,     // 6-6-3ļģʽݿ
+    DISJOINT_PATTERN_78,  // 7-8ļģʽݿ
 
     //PathFinding (8)
     PF_EUCLID,      // ŷþ
@@ -0,0 +1,23 @@
+package core.solver.algorithm.heuristic;
+
+import core.problem.Action;
+import core.problem.State;
+
+/**
+ *  ֵ֧Ԥӿ
+ *  һζֻıӣӽֵɸֵζı仯õ
+ *  ض״̬ͷֵProblem.childNodes Ԥʵ˱ӿʱԶ·
+ *
+ */
+public interface IncrementalPredictor extends Predictor {
+    /**
+     * ݸ״ֵ̬ȡĶ״ֵ̬
+     * @param
+     *      parent           ״̬
+     *      parentHeuristics ״ֵ̬ǱԤ parent Ĺֵ
+     *      action           ״̬ϲȡĶ ()
+     *      goal             Ŀ״̬
+     * @return ״̬Ŀ״ֵ̬ heuristics(parent.next(action), goal) 
+     */
+    int heuristics(State parent, int parentHeuristics, Action action, State goal);
+}
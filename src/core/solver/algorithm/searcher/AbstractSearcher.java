@@ -1,14 +1,12 @@
 package core.solver.algorithm.searcher;
 
 import core.problem.Problem;
-import core.problem.State;
+import core.solver.queue.ExploredSet;
 import core.solver.queue.Frontier;
 import core.solver.queue.Node;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * 抽象的搜素者，保留搜索历史。
@@ -18,29 +16,54 @@ import java.util.Set;
  */
 public abstract class AbstractSearcher {
 
-    // 已经访问过的节点集合
-    protected final Set<State> explored = new HashSet<>();
+    // 已经访问过的节点集合，状态支持 long 编码时只保存编码
+    protected final ExploredSet explored = new ExploredSet();
 
     // 还未扩展的节点队列
     protected final Frontier frontier;
 
-    protected int nodesGenerated = 0;   //已生成的节点的个数
-    protected int nodesExpanded = 0;    //已扩展的节点的个数
+    protected long nodesGenerated = 0;   //已生成的节点的个数
+    protected long nodesExpanded = 0;    //已扩展的节点的个数
+
+    // 最近一次 solve() 的统计指标
+    protected SearchMetrics metrics = new SearchMetrics();
 
     public AbstractSearcher(Frontier frontier) {
         this.frontier = frontier;
     }
 
-    public int nodesGenerated() {
+    public long nodesGenerated() {
         return nodesGenerated;
     }
 
-    public int nodesExpanded() {
+    public long nodesExpanded() {
         return nodesExpanded;
     }
 
+    /**
+     * @return 最近一次 solve() 的统计指标
+     */
+    public SearchMetrics metrics() {
+        return metrics;
+    }
+
     public abstract Deque<Node> search(Problem problem);
 
+    /**
+     * 求解问题，同时统计本次搜索的指标，结束后可用 metrics() 取得
+     * @param problem 问题
+     * @return 解路径，无解时为 null
+     */
+    public final Deque<Node> solve(Problem problem) {
+        metrics = new SearchMetrics();
+        metrics.start();
+        try {
+            return search(problem);
+        } finally {
+            metrics.finish(nodesGenerated, nodesExpanded, frontier == null ? 0 : frontier.size(), explored.size());
+        }
+    }
+
     protected Deque<Node> generatePath(Node goal) {
         Deque<Node> stack = new ArrayDeque<>();
         Node curr = goal;
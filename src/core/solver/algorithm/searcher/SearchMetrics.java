@@ -0,0 +1,413 @@
+package core.solver.algorithm.searcher;
+
+import core.problem.Action;
+import core.problem.State;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import core.solver.algorithm.heuristic.Predictor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * һͳָ
+ *  AbstractSearcher.solve() ʼʱʱβд
+ * long ͵/չfrontier  explored ķֵСʱÿ
+ * ̵߳ CPU ʱֽIDA* ֵֵֵش (BPMX) ɵļ֦
+ * ״̬дֽ
+ * Լѡķֽ׶κʱ (ɡֵfrontier )
+ * -Dsearch.metrics.phases=true 򿪷ֽ׶μʱÿչü System.nanoTime()ĬϹرգ
+ * -Dsearch.heartbeat= ڼ䰴ü System.err ȡ
+ */
+public final class SearchMetrics {
+
+    public static final boolean PHASE_TIMING = Boolean.getBoolean("search.metrics.phases");
+    private static final long HEARTBEAT_SECONDS = Long.getLong("search.heartbeat", 0);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static ScheduledExecutorService heartbeats;
+
+    private long generated;
+    private long expanded;
+    private long peakFrontier;
+    private long peakExplored;
+    private long cutoffs;
+
+    private long startNanos;
+    private long elapsedNanos;
+    private long startCpuNanos;
+    private long cpuNanos;
+    private long startAllocated;
+    private long allocatedBytes = -1;
+
+    // ʱ߳ͬʱۼ
+    private final LongAdder successorNanos = new LongAdder();
+    private final LongAdder heuristicNanos = new LongAdder();
+    private final LongAdder frontierNanos = new LongAdder();
+
+    // IDA* ֵֵ뱾ֵ/չ
+    private int iterations;
+    private int[] thresholds = new int[8];
+    private long[] iterationGenerated = new long[8];
+    private long[] iterationExpanded = new long[8];
+
+    // ĸ
+    private int layers;
+    private int[] layerDepths = new int[8];
+    private long[] layerStates = new long[8];
+    private long[] layerBytesRead = new long[8];
+    private long[] layerBytesWritten = new long[8];
+
+    // жڷĽȣ̶߳ȡ
+    private volatile long liveGenerated;
+    private volatile long liveExpanded;
+    private volatile long liveFrontier;
+    private ScheduledFuture<?> heartbeat;
+
+    /**
+     * ʼ¼ʼʱ䡢CPU ʱѷֽ
+     */
+    void start() {
+        startNanos = System.nanoTime();
+        startCpuNanos = THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+        startAllocated = allocatedByCurrentThread();
+        if (HEARTBEAT_SECONDS > 0) {
+            heartbeat = heartbeats().scheduleAtFixedRate(this::beat,
+                    HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * յĽʱֹֽͣ
+     */
+    void finish(long generated, long expanded, int frontierSize, int exploredSize) {
+        elapsedNanos = System.nanoTime() - startNanos;
+        if (THREADS.isCurrentThreadCpuTimeSupported()) {
+            cpuNanos = THREADS.getCurrentThreadCpuTime() - startCpuNanos;
+        }
+        long allocated = allocatedByCurrentThread();
+        allocatedBytes = allocated < 0 || startAllocated < 0 ? -1 : allocated - startAllocated;
+        this.generated = generated;
+        this.expanded = expanded;
+        observeFrontier(frontierSize);
+        observeExplored(exploredSize);
+        if (heartbeat != null) {
+            heartbeat.cancel(false);
+            heartbeat = null;
+        }
+    }
+
+    public void observeFrontier(int size) {
+        if (size > peakFrontier) peakFrontier = size;
+    }
+
+    public void observeExplored(int size) {
+        if (size > peakExplored) peakExplored = size;
+    }
+
+    /**
+     * ǰȣ·Ӧÿɴչһ
+     * @param frontierSize frontier ĴСIDA* û frontierǰ
+     */
+    public void progress(long generated, long expanded, long frontierSize) {
+        liveGenerated = generated;
+        liveExpanded = expanded;
+        liveFrontier = frontierSize;
+    }
+
+    public void addSuccessorTime(long nanos) {
+        successorNanos.add(nanos);
+    }
+
+    public void addHeuristicTime(long nanos) {
+        heuristicNanos.add(nanos);
+    }
+
+    public void addFrontierTime(long nanos) {
+        frontierNanos.add(nanos);
+    }
+
+    /**
+     * ۼֵش (BPMX) ɵļ֦
+     */
+    public void addCutoffs(long count) {
+        cutoffs += count;
+    }
+
+    /**
+     * ¼ IDA* һֵ
+     * @param threshold ֵֵ
+     * @param generated ɵĽ
+     * @param expanded  չĽ
+     */
+    public void iteration(int threshold, long generated, long expanded) {
+        if (iterations == thresholds.length) {
+            thresholds = Arrays.copyOf(thresholds, iterations * 2);
+            iterationGenerated = Arrays.copyOf(iterationGenerated, iterations * 2);
+            iterationExpanded = Arrays.copyOf(iterationExpanded, iterations * 2);
+        }
+        thresholds[iterations] = threshold;
+        iterationGenerated[iterations] = generated;
+        iterationExpanded[iterations] = expanded;
+        iterations++;
+    }
+
+    /**
+     * ¼һ㣬ʱÿһֶӵ 0 ¼¼
+     * @param depth        
+     * @param states       ȥغò״̬
+     * @param bytesRead    ɸòʱȡֽ
+     * @param bytesWritten ɸòʱдֽ
+     */
+    public void layer(int depth, long states, long bytesRead, long bytesWritten) {
+        if (layers == layerDepths.length) {
+            layerDepths = Arrays.copyOf(layerDepths, layers * 2);
+            layerStates = Arrays.copyOf(layerStates, layers * 2);
+            layerBytesRead = Arrays.copyOf(layerBytesRead, layers * 2);
+            layerBytesWritten = Arrays.copyOf(layerBytesWritten, layers * 2);
+        }
+        layerDepths[layers] = depth;
+        layerStates[layers] = states;
+        layerBytesRead[layers] = bytesRead;
+        layerBytesWritten[layers] = bytesWritten;
+        layers++;
+    }
+
+    /**
+     * 򿪷ֽ׶μʱʱһۼƹֵʱԤԭ
+     */
+    public Predictor timed(Predictor predictor) {
+        if (!PHASE_TIMING) {
+            return predictor;
+        }
+        return predictor instanceof IncrementalPredictor incremental
+                ? new TimedIncrementalPredictor(incremental, heuristicNanos)
+                : new TimedPredictor(predictor, heuristicNanos);
+    }
+
+    public long generated() {
+        return generated;
+    }
+
+    public long expanded() {
+        return expanded;
+    }
+
+    public long peakFrontier() {
+        return peakFrontier;
+    }
+
+    public long peakExplored() {
+        return peakExplored;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long cpuNanos() {
+        return cpuNanos;
+    }
+
+    /**
+     * @return ̷ֽ߳JVM ֧ͳʱΪ -1ʱ̵߳ķ
+     */
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public double nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : generated * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return ɺ̵ĺʱֵĲ
+     */
+    public long successorNanos() {
+        return Math.max(successorNanos.sum() - heuristicNanos.sum(), 0);
+    }
+
+    public long heuristicNanos() {
+        return heuristicNanos.sum();
+    }
+
+    public long frontierNanos() {
+        return frontierNanos.sum();
+    }
+
+    public long cutoffs() {
+        return cutoffs;
+    }
+
+    public int iterations() {
+        return iterations;
+    }
+
+    public int threshold(int iteration) {
+        return thresholds[iteration];
+    }
+
+    public long iterationGenerated(int iteration) {
+        return iterationGenerated[iteration];
+    }
+
+    public long iterationExpanded(int iteration) {
+        return iterationExpanded[iteration];
+    }
+
+    public int layers() {
+        return layers;
+    }
+
+    public int layerDepth(int layer) {
+        return layerDepths[layer];
+    }
+
+    public long layerStates(int layer) {
+        return layerStates[layer];
+    }
+
+    public long layerBytesRead(int layer) {
+        return layerBytesRead[layer];
+    }
+
+    public long layerBytesWritten(int layer) {
+        return layerBytesWritten[layer];
+    }
+
+    /**
+     * @return Զŷָ JSON ֶ ()ڵǰŵֶ
+     */
+    public String jsonFields() {
+        StringBuilder json = new StringBuilder()
+                .append("\"generated\":").append(generated)
+                .append(",\"expanded\":").append(expanded)
+                .append(",\"peakFrontier\":").append(peakFrontier)
+                .append(",\"peakExplored\":").append(peakExplored)
+                .append(",\"elapsedNanos\":").append(elapsedNanos)
+                .append(",\"cpuNanos\":").append(cpuNanos)
+                .append(",\"nodesPerSecond\":").append(Math.round(nodesPerSecond()))
+                .append(",\"allocatedBytes\":").append(allocatedBytes)
+                .append(",\"successorNanos\":").append(successorNanos())
+                .append(",\"heuristicNanos\":").append(heuristicNanos())
+                .append(",\"frontierNanos\":").append(frontierNanos())
+                .append(",\"cutoffs\":").append(cutoffs)
+                .append(",\"iterations\":[");
+        for (int i = 0; i < iterations; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"threshold\":").append(thresholds[i])
+                    .append(",\"generated\":").append(iterationGenerated[i])
+                    .append(",\"expanded\":").append(iterationExpanded[i]).append('}');
+        }
+        json.append("],\"layers\":[");
+        for (int i = 0; i < layers; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"depth\":").append(layerDepths[i])
+                    .append(",\"states\":").append(layerStates[i])
+                    .append(",\"bytesRead\":").append(layerBytesRead[i])
+                    .append(",\"bytesWritten\":").append(layerBytesWritten[i]).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * @return  csvFields() Ӧ CSV ͷ
+     */
+    public static String csvHeader() {
+        return "generated,expanded,peakFrontier,peakExplored,elapsedNanos,cpuNanos,nodesPerSecond,"
+                + "allocatedBytes,successorNanos,heuristicNanos,frontierNanos,cutoffs,iterations,layers";
+    }
+
+    /**
+     * @return CSV ֶΣIDA* ֵдһУÿΪ ֵ::չ֮ | ָ
+     * ͬдһУÿΪ :״̬:ȡֽ:дֽ
+     */
+    public String csvFields() {
+        StringBuilder csv = new StringBuilder()
+                .append(generated).append(',').append(expanded).append(',')
+                .append(peakFrontier).append(',').append(peakExplored).append(',')
+                .append(elapsedNanos).append(',').append(cpuNanos).append(',')
+                .append(Math.round(nodesPerSecond())).append(',').append(allocatedBytes).append(',')
+                .append(successorNanos()).append(',').append(heuristicNanos()).append(',')
+                .append(frontierNanos()).append(',').append(cutoffs).append(',');
+        for (int i = 0; i < iterations; i++) {
+            if (i > 0) csv.append('|');
+            csv.append(thresholds[i]).append(':').append(iterationGenerated[i]).append(':').append(iterationExpanded[i]);
+        }
+        csv.append(',');
+        for (int i = 0; i < layers; i++) {
+            if (i > 0) csv.append('|');
+            csv.append(layerDepths[i]).append(':').append(layerStates[i]).append(':')
+                    .append(layerBytesRead[i]).append(':').append(layerBytesWritten[i]);
+        }
+        return csv.toString();
+    }
+
+    private void beat() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long nodes = liveGenerated;
+        System.err.printf("[heartbeat]  %.1fs%d㣬չ%d㣬frontier %d%.0f /s%n",
+                seconds, nodes, liveExpanded, liveFrontier, nodes / seconds);
+    }
+
+    private static synchronized ScheduledExecutorService heartbeats() {
+        if (heartbeats == null) {
+            heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "search-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return heartbeats;
+    }
+
+    private static long allocatedByCurrentThread() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * ۼƹֵʱԤװ
+     */
+    private static class TimedPredictor implements Predictor {
+        private final Predictor predictor;
+        protected final LongAdder nanos;
+
+        TimedPredictor(Predictor predictor, LongAdder nanos) {
+            this.predictor = predictor;
+            this.nanos = nanos;
+        }
+
+        @Override
+        public int heuristics(State state, State goal) {
+            long start = System.nanoTime();
+            int h = predictor.heuristics(state, goal);
+            nanos.add(System.nanoTime() - start);
+            return h;
+        }
+    }
+
+    private static final class TimedIncrementalPredictor extends TimedPredictor implements IncrementalPredictor {
+        private final IncrementalPredictor incremental;
+
+        TimedIncrementalPredictor(IncrementalPredictor incremental, LongAdder nanos) {
+            super(incremental, nanos);
+            this.incremental = incremental;
+        }
+
+        @Override
+        public int heuristics(State parent, int parentHeuristics, Action action, State goal) {
+            long start = System.nanoTime();
+            int h = incremental.heuristics(parent, parentHeuristics, action, goal);
+            nanos.add(System.nanoTime() - start);
+            return h;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package core.solver.queue;
+
+import core.problem.PackedState;
+import core.problem.State;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * չ״̬ļ
+ *  long ״̬ (PackedState  hasKey()) ֻѱ LongHashSet
+ * ״̬վɴ HashSet<State>ͬһе״̬Ӧͬһ⣬֤벻໥ͻ
+ * Ҫ´չ close()/pathCost()ͬʱչʱ g ֵ
+ */
+public final class ExploredSet {
+
+    private final LongHashSet keys = new LongHashSet();
+    private final Set<State> states = new HashSet<>();
+    // close() ¼չʱ g ֵ
+    private final LongIntHashMap keyCosts = new LongIntHashMap();
+    private final Map<State, Integer> stateCosts = new HashMap<>();
+
+    // pathCost() ״̬δչʱķֵ
+    public static final int ABSENT = -1;
+
+    /**
+     * @param state չ״̬
+     * @return ԭڼз true
+     */
+    public boolean add(State state) {
+        PackedState packed = packed(state);
+        return packed != null ? keys.add(packed.key()) : states.add(state);
+    }
+
+    public boolean contains(State state) {
+        PackedState packed = packed(state);
+        return packed != null ? keys.contains(packed.key()) : states.contains(state);
+    }
+
+    /**
+     * ¼ g ֵ pathCost չ state´򿪺ٴչʱԭ g ֵ
+     */
+    public void close(State state, int pathCost) {
+        PackedState packed = packed(state);
+        if (packed != null) {
+            keyCosts.put(packed.key(), pathCost);
+        } else {
+            stateCosts.put(state, pathCost);
+        }
+    }
+
+    /**
+     * @return close() ¼ state  g ֵδչʱΪ ABSENT
+     */
+    public int pathCost(State state) {
+        PackedState packed = packed(state);
+        if (packed != null) {
+            return keyCosts.get(packed.key(), ABSENT);
+        }
+        Integer cost = stateCosts.get(state);
+        return cost == null ? ABSENT : cost;
+    }
+
+    // ܱ״̬תΪ PackedStateΪ null
+    private static PackedState packed(State state) {
+        return state instanceof PackedState packed && packed.hasKey() ? packed : null;
+    }
+
+    public void clear() {
+        keys.clear();
+        states.clear();
+        keyCosts.clear();
+        stateCosts.clear();
+    }
+
+    public int size() {
+        return keys.size() + states.size() + keyCosts.size() + stateCosts.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,136 @@
+package core.solver.queue;
+
+import java.util.Arrays;
+
+/**
+ * ԭʼ long ĿѰַϣϣ̽⣩
+ * ÿԪֻռеһ long λûװҲû㡣
+ * ʼΪ 2 ݣԪظ LOAD_FACTOR ʱ
+ */
+public final class LongHashSet {
+
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+    // װȡ 0.5̽ڴװƽ̽ⳤȲ 2
+    private static final double LOAD_FACTOR = 0.5;
+    // ղλıǣԪ 0  containsEmpty ¼
+    private static final long EMPTY = 0L;
+
+    // ʱclear() ʱԭ
+    private final int initialCapacity;
+    private long[] slots;
+    private int mask;
+    private int size;
+    private int threshold;
+    private boolean containsEmpty;
+
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expected ԤƵԪظݴȷʼз
+     */
+    public LongHashSet(int expected) {
+        initialCapacity = tableSizeFor(Math.max(expected, 2));
+        allocate(initialCapacity);
+    }
+
+    /**
+     * һԪ
+     * @param key Ԫ
+     * @return ԭڼз true
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmpty) return false;
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        int i = indexOf(key);
+        while (slots[i] != EMPTY) {
+            if (slots[i] == key) return false;
+            i = (i + 1) & mask;
+        }
+        slots[i] = key;
+        if (++size > threshold) {
+            rehash(slots.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) return containsEmpty;
+        int i = indexOf(key);
+        while (slots[i] != EMPTY) {
+            if (slots[i] == key) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * ռϡһŵñȹʱ˻عʱڴ滹һ
+     */
+    public void clear() {
+        size = 0;
+        containsEmpty = false;
+        if (slots.length > initialCapacity) {
+            allocate(initialCapacity);
+        } else {
+            Arrays.fill(slots, EMPTY);
+        }
+    }
+
+    /**
+     * @return λռõֽ
+     */
+    public long memoryBytes() {
+        return (long) slots.length * Long.BYTES;
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalStateException("LongHashSet : " + size);
+        }
+        long[] old = slots;
+        allocate(capacity);
+        for (long key : old) {
+            if (key == EMPTY) continue;
+            int i = indexOf(key);
+            while (slots[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = key;
+        }
+    }
+
+    // ״̬λһ 64 λ (MurmurHash3 fmix64) ȡλ
+    private int indexOf(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private static int tableSizeFor(int expected) {
+        long capacity = Long.highestOneBit((long) (expected / LOAD_FACTOR) - 1) << 1;
+        return (int) Math.min(Math.max(capacity, 2), 1 << 30);
+    }
+}
@@ -0,0 +1,146 @@
+package core.solver.queue;
+
+import java.util.Arrays;
+
+/**
+ * Ϊԭʼ longֵΪ int ĿѰַϣ̽⣩ LongHashSet Ĳͬ
+ * ֵַƽУÿռ 12 ֽڣûװ
+ * ʼΪ 2 ݣԪظ LOAD_FACTOR ʱ
+ */
+public final class LongIntHashMap {
+
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+    private static final double LOAD_FACTOR = 0.5;
+    // ղλıǣ 0  containsEmpty/emptyValue ¼
+    private static final long EMPTY = 0L;
+
+    private final int initialCapacity;
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int threshold;
+    private boolean containsEmpty;
+    private int emptyValue;
+
+    public LongIntHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expected ԤƵԪظݴȷʼ
+     */
+    public LongIntHashMap(int expected) {
+        initialCapacity = tableSizeFor(Math.max(expected, 2));
+        allocate(initialCapacity);
+    }
+
+    /**
+     * 򸲸һ
+     */
+    public void put(long key, int value) {
+        if (key == EMPTY) {
+            if (!containsEmpty) {
+                containsEmpty = true;
+                size++;
+            }
+            emptyValue = value;
+            return;
+        }
+        int i = indexOf(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * @return key Ӧֵʱ missing
+     */
+    public int get(long key, int missing) {
+        if (key == EMPTY) return containsEmpty ? emptyValue : missing;
+        int i = indexOf(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) return values[i];
+            i = (i + 1) & mask;
+        }
+        return missing;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * ձһŵñȳʼ˻سʼ
+     */
+    public void clear() {
+        size = 0;
+        containsEmpty = false;
+        if (keys.length > initialCapacity) {
+            allocate(initialCapacity);
+        } else {
+            Arrays.fill(keys, EMPTY);
+        }
+    }
+
+    /**
+     * @return ֵռõֽ
+     */
+    public long memoryBytes() {
+        return (long) keys.length * (Long.BYTES + Integer.BYTES);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalStateException("LongIntHashMap : " + size);
+        }
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key == EMPTY) continue;
+            int i = indexOf(key);
+            while (keys[i] != EMPTY) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = oldValues[j];
+        }
+    }
+
+    //  LongHashSet ͬһ 64 λ (MurmurHash3 fmix64) ȡλ
+    private int indexOf(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    private static int tableSizeFor(int expected) {
+        long capacity = Long.highestOneBit((long) (expected / LOAD_FACTOR) - 1) << 1;
+        return (int) Math.min(Math.max(capacity, 2), 1 << 30);
+    }
+}
@@ -4,7 +4,6 @@ import core.problem.Action;
 import core.problem.Problem;
 import core.problem.State;
 import core.solver.queue.Node;
-import stud.problem.pathfinding.Direction;
 import stud.problem.pathfinding.Move;
 
 import java.util.Deque;
@@ -125,6 +124,14 @@ public class NPuzzleProblem extends Problem {
         return 1;
     }
 
+    /**
+     * հ׸ƻԭһÿ۶Ϊ 1
+     */
+    @Override
+    public boolean reversible() {
+        return true;
+    }
+
     /**
      * һڵǰ״̬Ƿִ
      * ͨƶհ׸Ƿᳬ̱߽жϡ
@@ -136,23 +143,9 @@ public class NPuzzleProblem extends Problem {
     public boolean applicable(State state, Action action) {
         PuzzleBoard board = (PuzzleBoard) state;
         Move move = (Move) action;
-        Direction direction = move.getDirection();
-
-        // ȡհ׸ĵǰλ
-        int[] blankPos = board.findBlank();
-        int blankRow = blankPos[0];
-        int blankCol = blankPos[1];
-        int size = board.getSize();
 
-        // ƶжǷԽ
-        return switch (direction) {
-            case N -> blankRow > 0;
-            case S -> blankRow < size - 1;
-            case W -> blankCol > 0;
-            case E -> blankCol < size - 1;
-            // N-Puzzle ֶ֧Խߵƶ
-            default -> false;
-        };
+        // ƶжǷԽ磬ԽߵڱоΪԽ
+        return board.movable(move.getDirection());
     }
 
 
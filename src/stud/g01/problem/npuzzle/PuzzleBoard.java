@@ -1,6 +1,7 @@
 package stud.g01.problem.npuzzle;
 
 import core.problem.Action;
+import core.problem.PackedState;
 import core.problem.State;
 import stud.problem.pathfinding.Direction;
 import stud.problem.pathfinding.Move;
@@ -12,46 +13,95 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
-public class PuzzleBoard extends State {
+public class PuzzleBoard extends State implements PackedState {
 
-    private final int[][] grid;
+    // ÿռ 4 λ 4x4 ǡ÷Žһ long
+    private static final int BITS = 4;
+    private static final long MASK = 0xFL;
+    // ܴһ long ߳ (16  * 4 λ = 64 λ)
+    public static final int PACKED_SIZE = 4;
+    // ֵ֧߳ÿһֽڣƬŲܳ Byte.MAX_VALUE
+    public static final int MAX_SIZE = 11;
+
+    // ˳:  i Ƭλ [4i, 4i+4) λ 4x4 ̲
+    // ֻ copy() õĹ̻ᾭ slide() ԭ޸
+    private long tiles;
+    //  4x4 ̰˳ÿһֽڣ 4x4 ʱΪ null
+    private byte[] cells;
     private final int size;
-    // հ׸λãظЧ
-    private int[] blankPosition;
+    // հ׸˳µ±
+    private int blank;
+    // ǰģԤȼõƶ
+    private final MoveTable table;
 
     /**
      * һµ PuzzleBoard ״̬ʵ
      * @param grid ڳʼ״̬Ķά
      */
     public PuzzleBoard(int[][] grid) {
-        this.grid = grid;
         this.size = grid.length;
-        // հ׸λã findBlank(), next(), actions() Ч
-        this.blankPosition = findBlank();
+        if (size < 2 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("PuzzleBoard ֧ 2x2  " + MAX_SIZE + "x" + MAX_SIZE + " : " + size);
+        }
+        long packed = 0L;
+        byte[] bytes = size > PACKED_SIZE ? new byte[size * size] : null;
+        int blankIndex = -1;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                int index = i * size + j;
+                if (bytes == null) {
+                    packed |= ((long) grid[i][j] & MASK) << (index * BITS);
+                } else {
+                    bytes[index] = (byte) grid[i][j];
+                }
+                if (grid[i][j] == 0) {
+                    blankIndex = index;
+                }
+            }
+        }
+        this.tiles = packed;
+        this.cells = bytes;
+        this.blank = blankIndex;
+        this.table = MoveTable.of(size);
+    }
+
+    /**
+     * ֱɴ̹״̬ next() ʹãκμ
+     */
+    private PuzzleBoard(int size, long tiles, int blank, MoveTable table) {
+        this.size = size;
+        this.tiles = tiles;
+        this.blank = blank;
+        this.table = table;
+    }
+
+    /**
+     * ŵĴ̹״̬cells ״̬
+     */
+    private PuzzleBoard(int size, byte[] cells, int blank, MoveTable table) {
+        this.size = size;
+        this.cells = cells;
+        this.blank = blank;
+        this.table = table;
     }
 
     /**
      * Ѱҿհ׸(0)λ
-     * ˷ʹû (blankPosition) ظ
      * @return һ [row, col] 
      */
     public int[] findBlank() {
-        // л棬ֱӷ
-        if (this.blankPosition != null) {
-            return this.blankPosition;
-        }
-        // ûл棬Ѱ
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (grid[i][j] == 0) {
-                    // ҵհ׸񣬻λ
-                    this.blankPosition = new int[]{i, j};
-                    return this.blankPosition;
-                }
-            }
+        if (blank < 0) {
+            // ϲӦ޿հ׸
+            return new int[]{-1, -1};
         }
-        // ϲӦ޿հ׸
-        return new int[]{-1, -1};
+        return new int[]{blank / size, blank % size};
+    }
+
+    /**
+     * @return հ׸˳µ±
+     */
+    public int getBlankIndex() {
+        return blank;
     }
 
     /**
@@ -60,14 +110,13 @@ public class PuzzleBoard extends State {
      */
     @Override
     public void draw() {
-        int size = grid.length;
         StringBuilder border = new StringBuilder("+");
         border.append("-----+".repeat(size)); // (ûԶı߿)
         for (int i = 0; i < size; i++) {
             System.out.println(border);
             System.out.print("|");
             for (int j = 0; j < size; j++) {
-                int val = grid[i][j];
+                int val = tileAt(i, j);
                 String cell = (val == 0) ? "#" : String.valueOf(val);
                 System.out.printf(" %-3s |", cell);
             }
@@ -78,74 +127,107 @@ public class PuzzleBoard extends State {
 
     /**
      * ݸĶ (Action) ɲһµ״̬ (State)
-     * ˷ͨհ׸Ƭʵ֣ȷ״̬Ĳɱԡ
+     * ͨƶõհ׸񽻻ĸӣλɽκ飻
+     *  4x4 ̸һٽ
      * @param action ҪִеĶ ( Move )
      * @return ִж PuzzleBoard ״̬
      */
     @Override
     public State next(Action action) {
-        //  Action תΪ Move Իȡ
-        Move move = (Move) action;
-        Direction direction = move.getDirection();
-
-        //  grid ȿԱ֤״̬ɱ
-        int[][] newGrid = new int[size][];
-        for (int i = 0; i < size; i++) {
-            newGrid[i] = Arrays.copyOf(grid[i], size);
+        Direction direction = ((Move) action).getDirection();
+        int target = table.target(blank, direction);
+        if (cells != null) {
+            byte[] moved = cells.clone();
+            moved[blank] = moved[target];
+            moved[target] = 0;
+            return new PuzzleBoard(size, moved, target, table);
         }
 
-        // ȡĿհ׸λ
-        int blankRow = blankPosition[0];
-        int blankCol = blankPosition[1];
+        // ĿƬƵհ׸񴦣ĿΪհ (հ׸ԭΪ 0ֱӻϼ)
+        long tile = (tiles >>> (target * BITS)) & MASK;
+        long packed = (tiles & ~(MASK << (target * BITS))) | (tile << (blank * BITS));
 
-        // ĿƬ (Ҫհ׸񽻻Ƭ) 
-        int[] offset = Direction.offset(direction);
-        int targetRow = blankRow + offset[1]; // Y ƫ
-        int targetCol = blankCol + offset[0]; // X ƫ
-
-        // ִнƬƵհ׸
-        newGrid[blankRow][blankCol] = grid[targetRow][targetCol];
-        // ԭƬλΪհ׸
-        newGrid[targetRow][targetCol] = 0;
-
-        // ذ״̬
-        return new PuzzleBoard(newGrid);
+        return new PuzzleBoard(size, packed, target, table);
     }
 
     /**
      * ɵǰ״̬пƶMove
-     * ڿհ׸ĵǰλж N, S, E, W ĸǷƶ
+     * ֱӷƶаհ׸λԤɵֻб
      * @return һпƶMove
      */
     @Override
     public Iterable<? extends Action> actions() {
-        ArrayList<Action> possibleActions = new ArrayList<>();
-        // ȡĿհ׸λ
-        int row = blankPosition[0];
-        int col = blankPosition[1];
+        return table.actions(blank);
+    }
 
-        //  (N) ǷԽ
-        if (row > 0) {
-            possibleActions.add(new Move(Direction.N));
-        }
-        //  (S) ǷԽ
-        if (row < size - 1) {
-            possibleActions.add(new Move(Direction.S));
-        }
-        //  (W) ǷԽ
-        if (col > 0) {
-            possibleActions.add(new Move(Direction.W));
+    /**
+     *  actions() ͬ List أɰ±
+     * @return ǰհ׸λпõ Moveֻ
+     */
+    public List<Move> moves() {
+        return table.actions(blank);
+    }
+
+    /**
+     * Ƴһµ̣ΪԭĹ
+     * @return 뵱ǰͬκ״̬
+     */
+    public PuzzleBoard copy() {
+        if (cells != null) {
+            return new PuzzleBoard(size, cells.clone(), blank, table);
         }
-        //  (E) ǷԽ
-        if (col < size - 1) {
-            possibleActions.add(new Move(Direction.E));
+        return new PuzzleBoard(size, tiles, blank, table);
+    }
+
+    /**
+     * ԭذ cell Ƭհ׸cell ΪµĿհ׸
+     * Ϊ״̬ǲɱģŽϣ·е̶޸ģֻ copy() õռĹ̡
+     * һƶֻƶǰհ׸λٵһΡ
+     * @param cell հ׸ڵĸ
+     */
+    public void slide(int cell) {
+        if (cells != null) {
+            cells[blank] = cells[cell];
+            cells[cell] = 0;
+            blank = cell;
+            return;
         }
-        return possibleActions;
+        long tile = (tiles >>> (cell * BITS)) & MASK;
+        tiles = (tiles & ~(MASK << (cell * BITS))) | (tile << (blank * BITS));
+        blank = cell;
+    }
+
+    /**
+     * ѹ廻һ״̬ slide() һֻ copy() õĹ
+     * @param packed ͬһģ getTiles() õĴ
+     */
+    public void load(long packed) {
+        requirePacked();
+        tiles = packed;
+        blank = indexOf(0);
+    }
+
+    /**
+     * հ׸ܷ direction ƶ
+     * @param direction ƶ
+     * @return Խ򷵻 true
+     */
+    public boolean movable(Direction direction) {
+        return table.target(blank, direction) >= 0;
+    }
+
+    /**
+     * հ׸ direction ƶʱ֮ĸ
+     * @param direction ƶ
+     * @return ø˳µ±꣬ԽʱΪ -1
+     */
+    public int neighbour(Direction direction) {
+        return table.target(blank, direction);
     }
 
     /**
      * Ƚϴ PuzzleBoard ״̬һǷͬ
-     * ״̬ҽǵ (grid) ȫͬʱűΪ
+     * ״̬ҽǵĹģʹȫͬʱűΪ
      * @param o ҪȽϵһ
      * @return ״̬ͬ򷵻 true, 򷵻 false
      */
@@ -154,38 +236,170 @@ public class PuzzleBoard extends State {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         PuzzleBoard that = (PuzzleBoard) o;
-        return Arrays.deepEquals(grid, that.grid);
+        if (size != that.size) return false;
+        return cells == null ? tiles == that.tiles : Arrays.equals(cells, that.cells);
     }
 
     /**
      * Ϊǰ״̬ɹϣ
-     *  (grid) ɣ HashSet  HashMap ниЧ洢Ͳҡ
-     * @return  grid ݼĹϣ ()
+     * Դ long һγ˷ϣʹλҲ뵽λУ 4x4 ̰㡣
+     * @return ڴ̼Ĺϣ ()
      */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(grid);
+        if (cells != null) {
+            return Arrays.hashCode(cells);
+        }
+        return (int) ((tiles * 0x9E3779B97F4A7C15L) >>> 32);
     }
 
+    /**
+     * Զάʽ̣ÿεö½飬·ʹ tileAt()
+     * @return ̵Ķά鿽
+     */
     public int[][] getGrid() {
+        int[][] grid = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                grid[i][j] = tileAt(i, j);
+            }
+        }
         return grid;
     }
 
+    /**
+     * @param index ˳µĸ±
+     * @return øϵƬ0 ʾհ׸
+     */
+    public int tileAt(int index) {
+        if (cells != null) {
+            return cells[index];
+        }
+        return (int) ((tiles >>> (index * BITS)) & MASK);
+    }
+
+    public int tileAt(int row, int col) {
+        return tileAt(row * size + col);
+    }
+
+    /**
+     * @return ̣ÿ 4 λȣֻв 4x4 ̿
+     */
+    public long getTiles() {
+        requirePacked();
+        return tiles;
+    }
+
+    /**
+     * ̱״̬Ψһ룻 4x4 ̷Ųһ longûб
+     */
+    @Override
+    public boolean hasKey() {
+        return cells == null;
+    }
+
+    @Override
+    public long key() {
+        requirePacked();
+        return tiles;
+    }
+
+    private void requirePacked() {
+        if (cells != null) {
+            throw new IllegalStateException(" " + PACKED_SIZE + "x" + PACKED_SIZE + " ûд: " + size);
+        }
+    }
+
     public int getSize() {
         return size;
     }
 
+    /**
+     * ̵ʾ tile  4 λƬ tile ڵĸ±
+     * ֻһɨ裬κζ󣬹ҪƬȡλõĹֵʹãֻв 4x4 ̿
+     * @return Ƭλ
+     */
+    public long positions() {
+        requirePacked();
+        long where = 0L;
+        int cells = size * size;
+        for (int cell = 0; cell < cells; cell++) {
+            where |= (long) cell << (tileAt(cell) * BITS);
+        }
+        return where;
+    }
+
     public int indexOf(int tile) {
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (grid[i][j] == tile) {
-                    return i * size + j;
-                }
+        int cells = size * size;
+        for (int i = 0; i < cells; i++) {
+            if (tileAt(i) == tile) {
+                return i;
             }
         }
         return -1; // ûҵհ׸
     }
 
+    /* ===================== ƶ ===================== */
+
+    /**
+     * ĳһģ̵ƶհ׸λúͷԤȼ֮ĸӣ
+     * Լÿհ׸λ¿õ Move бģֻһΣ״̬
+     */
+    private static final class MoveTable {
+        private static final MoveTable[] TABLES = new MoveTable[MAX_SIZE + 1];
+        // N-Puzzle ֻĸMove 󲻿ɱ䣬Թ
+        private static final Move[] MOVES = {
+                new Move(Direction.N), new Move(Direction.S),
+                new Move(Direction.W), new Move(Direction.E)
+        };
+        private static final int DIRECTIONS = Direction.values().length;
+
+        static {
+            for (int n = 2; n <= MAX_SIZE; n++) {
+                TABLES[n] = new MoveTable(n);
+            }
+        }
+
+        // targets[blank * DIRECTIONS + direction.ordinal()]: ±꣬ԽΪ -1
+        private final int[] targets;
+        private final List<List<Move>> actions;
+
+        private MoveTable(int size) {
+            int cells = size * size;
+            targets = new int[cells * DIRECTIONS];
+            Arrays.fill(targets, -1);
+            List<List<Move>> all = new ArrayList<>(cells);
+            for (int blank = 0; blank < cells; blank++) {
+                int row = blank / size;
+                int col = blank % size;
+                List<Move> moves = new ArrayList<>(4);
+                for (Move move : MOVES) {
+                    int[] offset = Direction.offset(move.getDirection());
+                    int targetRow = row + offset[1]; // Y ƫ
+                    int targetCol = col + offset[0]; // X ƫ
+                    if (targetRow >= 0 && targetRow < size && targetCol >= 0 && targetCol < size) {
+                        targets[blank * DIRECTIONS + move.getDirection().ordinal()] = targetRow * size + targetCol;
+                        moves.add(move);
+                    }
+                }
+                all.add(List.copyOf(moves));
+            }
+            actions = List.copyOf(all);
+        }
+
+        static MoveTable of(int size) {
+            return TABLES[size];
+        }
+
+        int target(int blank, Direction direction) {
+            return targets[blank * DIRECTIONS + direction.ordinal()];
+        }
+
+        List<Move> actions(int blank) {
+            return actions.get(blank);
+        }
+    }
+
     // ==========================================
     // ļ֧
     // ==========================================
@@ -198,7 +412,7 @@ public class PuzzleBoard extends State {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < size; i++) {
             for (int j = 0; j < size; j++) {
-                sb.append(grid[i][j]);
+                sb.append(tileAt(i, j));
                 if (i < size - 1 || j < size - 1) {
                     sb.append(" ");
                 }
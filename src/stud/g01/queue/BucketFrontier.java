@@ -0,0 +1,206 @@
+package stud.g01.queue;
+
+import core.problem.State;
+import core.solver.queue.EvaluationType;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ͱĵȶ Frontier
+ * N-Puzzle ĹֵǽС A*  f ֵ
+ * ˰ֵѽŽ±ӦͰһֻǰƶָСͰ
+ * offer/poll ̯ O(1)ÿͰٰ g ֳֵڴ f ͬʱƽ֡
+ * ״̬λõ (index) ʹظ滻ͬ O(1)
+ */
+public class BucketFrontier implements Frontier {
+
+    // ͰĹֵʽFULL  f = g + hPATH_COST  gHEURISTIC  h
+    private final EvaluationType type;
+    // ֵͬʱǷȡ g ϴ () Ľ㣻Ϊ false ʱ Node.evaluator(FULL) һ£ȡǳĽ
+    private final boolean deeperFirst;
+
+    // buckets[key] ŹֵΪ key ȫ
+    private Bucket[] buckets = new Bucket[64];
+    // ״̬ -> ڵ contains ظ滻
+    private final Map<State, Entry> index = new HashMap<>();
+    // СǿͰ±½
+    private int minKey = Integer.MAX_VALUE;
+    private int size = 0;
+
+    /**
+     * 찴 f = g + h f ͬʱȡǳ BucketFrontier
+     */
+    public BucketFrontier() {
+        this(EvaluationType.FULL, false);
+    }
+
+    /**
+     * @param type        ͰĹֵʽ
+     * @param deeperFirst ֵͬʱǷȡ g ϴĽ
+     */
+    public BucketFrontier(EvaluationType type, boolean deeperFirst) {
+        this.type = type;
+        this.deeperFirst = deeperFirst;
+    }
+
+    /**
+     * СķǿͰȡһ
+     * @return ֵСĽ㣻Frontier Ϊʱ null
+     */
+    @Override
+    public Node poll() {
+        if (size == 0) {
+            return null;
+        }
+        // ָֻڲСֵʱˣʱǰ
+        while (buckets[minKey] == null || buckets[minKey].count == 0) {
+            minKey++;
+        }
+        Bucket bucket = buckets[minKey];
+        Entry entry = bucket.heads[bucket.cursor];
+        unlink(bucket, entry);
+        index.remove(entry.node.getState());
+        size--;
+        return entry.node;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(buckets, null);
+        index.clear();
+        minKey = Integer.MAX_VALUE;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(Node node) {
+        return index.containsKey(node.getState());
+    }
+
+    /**
+     * ӦͰ
+     * ͬ״̬Ľ㣬½·ɢ (g) СѾɽͰժ£½
+     * @param node ҪĽ
+     * @return Frontier ˷ıʱ true
+     */
+    @Override
+    public boolean offer(Node node) {
+        Entry existing = index.get(node.getState());
+        if (existing == null) {
+            Entry entry = new Entry(node);
+            index.put(node.getState(), entry);
+            link(entry);
+            size++;
+            return true;
+        }
+        if (node.getPathCost() < existing.node.getPathCost()) {
+            unlink(buckets[existing.key], existing);
+            existing.node = node;
+            link(existing);
+            return true;
+        }
+        return false;
+    }
+
+    private int keyOf(Node node) {
+        return switch (type) {
+            case FULL -> node.evaluation();
+            case PATH_COST -> node.getPathCost();
+            case HEURISTIC -> node.getHeuristic();
+        };
+    }
+
+    /**
+     * ҵ (ֵ, g) Ӧıͷ
+     */
+    private void link(Entry entry) {
+        int key = keyOf(entry.node);
+        int g = entry.node.getPathCost();
+        entry.key = key;
+
+        if (key >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(buckets.length << 1, key + 1));
+        }
+        Bucket bucket = buckets[key];
+        if (bucket == null) {
+            bucket = buckets[key] = new Bucket();
+        }
+        if (g >= bucket.heads.length) {
+            bucket.heads = Arrays.copyOf(bucket.heads, Math.max(bucket.heads.length << 1, g + 1));
+        }
+
+        Entry head = bucket.heads[g];
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        bucket.heads[g] = entry;
+        bucket.count++;
+
+        if (bucket.cursor < 0 || (deeperFirst ? g > bucket.cursor : g < bucket.cursor)) {
+            bucket.cursor = g;
+        }
+        minKey = Math.min(minKey, key);
+    }
+
+    /**
+     * ڵͰժ£ժαڵαȷƵһǿ
+     */
+    private void unlink(Bucket bucket, Entry entry) {
+        int g = entry.node.getPathCost();
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            bucket.heads[g] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = entry.next = null;
+
+        if (--bucket.count == 0) {
+            bucket.cursor = -1;
+        } else if (g == bucket.cursor && bucket.heads[g] == null) {
+            int step = deeperFirst ? -1 : 1;
+            do {
+                bucket.cursor += step;
+            } while (bucket.heads[bucket.cursor] == null);
+        }
+    }
+
+    /**
+     * ͬһֵн㣬heads[g] ·ɢΪ g Ľɵ˫
+     */
+    private static final class Bucket {
+        Entry[] heads = new Entry[16];
+        int count = 0;
+        // ƽֹһҪ gͰΪʱΪ -1
+        int cursor = -1;
+    }
+
+    private static final class Entry {
+        Node node;
+        int key;
+        Entry prev;
+        Entry next;
+
+        Entry(Node node) {
+            this.node = node;
+        }
+    }
+}
@@ -4,27 +4,34 @@ import core.solver.queue.Frontier;
 import core.solver.queue.Node;
 import core.problem.State;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.PriorityQueue;
 
 /**
  * Frontier ӿڵȶиʵ
- * ڲȶ (PriorityQueue) ͹ϣ (HashMap)
+ * ڲ˴ 4 Ѻ͹ϣ (HashMap)
  * ԸЧ֧ A* 㷨жԽڵĲҡ͸²
+ * ϣеÿһ¼˽ڵ㵱ǰڶе±꣬
+ * ָŵظڵʱԭص (decrease-key)ɨС
  */
 public class PqFrontier implements Frontier {
 
-    // ȶУڴ洢ڵ㲢 f-score (g+h) Զ
-    private final PriorityQueue<Node> queue;
-    // ϣڿٲĳ״̬ (State) ǷѴڶ
-    private final Map<State, Node> map;
+    // ѵķֲ4 ѱȶѸ³ʱȽϴԶ൫ô
+    private static final int ARITY = 4;
+
+    //  f-score (g+h) ֯ 4 С
+    private Entry[] heap;
+    private int size;
+    // ϣڿٲĳ״̬ (State) ǷѴڶУԼڶеλ
+    private final Map<State, Entry> map;
 
     /**
-     * һµ PqFrontier ʵ
+     * һµ PqFrontier ʵ
      */
     public PqFrontier() {
-        this.queue = new PriorityQueue<>();
+        this.heap = new Entry[64];
+        this.size = 0;
         this.map = new HashMap<>();
     }
 
@@ -34,13 +41,21 @@ public class PqFrontier implements Frontier {
      */
     @Override
     public Node poll() {
-        // ȶȡŽڵ
-        Node node = queue.poll();
-        if (node != null) {
-            // ֹϣеͬƳӦ״̬ļ¼
-            map.remove(node.getState());
+        if (size == 0) {
+            return null;
+        }
+        // ȡѶöβԪ³
+        Entry top = heap[0];
+        Entry last = heap[--size];
+        heap[size] = null;
+        if (size > 0) {
+            heap[0] = last;
+            last.position = 0;
+            siftDown(0);
         }
-        return node;
+        // ֹϣͬƳӦ״̬ļ¼
+        map.remove(top.node.getState());
+        return top.node;
     }
 
     /**
@@ -48,7 +63,8 @@ public class PqFrontier implements Frontier {
      */
     @Override
     public void clear() {
-        queue.clear();
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
         map.clear();
     }
 
@@ -58,7 +74,7 @@ public class PqFrontier implements Frontier {
      */
     @Override
     public int size() {
-        return queue.size();
+        return size;
     }
 
     /**
@@ -67,7 +83,7 @@ public class PqFrontier implements Frontier {
      */
     @Override
     public boolean isEmpty() {
-        return queue.isEmpty();
+        return size == 0;
     }
 
     /**
@@ -82,37 +98,108 @@ public class PqFrontier implements Frontier {
     }
 
     /**
-     * ܵؽһڵ Frontier
+     * ܵؽһڵ Frontier
      * ˷ʵ A* 㷨Ĺؼ߼
-     * 1. ڵ״̬ȫµģֱӲ롣
-     * 2. Ѵͬ״̬Ľڵ㣬Ƚ·ɱ (g-cost)ɱ͵һ
-     * @param node ҪĽڵ
+     * 1. ڵ״̬ȫµģֱӲ벢ϸ
+     * 2. Ѵͬ״̬Ľڵ㣬Ƚ·ɱ (g-cost)½ڵʱԭ滻ڶеλãO(log n)
+     * @param node ҪĽڵ
      * @return  Frontier 򱾴βı䣬򷵻 true
      */
     @Override
     public boolean offer(Node node) {
         State state = node.getState();
-        // ͨϣǷѴڴͬ״̬Ľڵ
-        Node existingNode = map.get(state);
+        // ͨϣǷѴڴͬ״̬Ľڵ
+        Entry existing = map.get(state);
 
-        // Frontier û״̬Ľڵ㣬ֱ
-        if (existingNode == null) {
-            queue.add(node);
-            map.put(state, node);
+        // Frontier û״̬Ľڵ㣬ֱ
+        if (existing == null) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, heap.length << 1);
+            }
+            Entry entry = new Entry(node, size);
+            heap[size++] = entry;
+            map.put(state, entry);
+            siftUp(entry.position);
             return true;
         }
 
-        // Ѵͬ״̬Ľڵ㣬½ڵ· (g-cost С)
-        if (node.getPathCost() < existingNode.getPathCost()) {
-            // Ƴɽڵ㣬½ڵ㣬Դ滻ɽڵ
-            queue.remove(existingNode);
-            queue.add(node);
-            // ͬʱ¹ϣеãʹָŵ½ڵ
-            map.put(state, node);
+        // Ѵͬ״̬Ľڵ㣬½ڵ· (g-cost С)
+        if (node.getPathCost() < existing.node.getPathCost()) {
+            // ԭ滻ڵ㣬f ֵСֻϸΪֵֹһµ f ٳ³һ
+            existing.node = node;
+            existing.f = node.evaluation();
+            siftUp(existing.position);
+            siftDown(existing.position);
             return true;
         }
 
         // ѴڵĽڵ·Żȣκβ
         return false;
     }
-}
\ No newline at end of file
+
+    /**
+     *  position Ԫƶʵλ
+     */
+    private void siftUp(int position) {
+        Entry entry = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / ARITY;
+            Entry p = heap[parent];
+            if (entry.f >= p.f) {
+                break;
+            }
+            heap[position] = p;
+            p.position = position;
+            position = parent;
+        }
+        heap[position] = entry;
+        entry.position = position;
+    }
+
+    /**
+     *  position Ԫƶʵλ
+     */
+    private void siftDown(int position) {
+        Entry entry = heap[position];
+        while (true) {
+            int first = position * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            //  ARITY  f Сһ
+            int best = first;
+            Entry bestEntry = heap[first];
+            int end = Math.min(first + ARITY, size);
+            for (int child = first + 1; child < end; child++) {
+                if (heap[child].f < bestEntry.f) {
+                    best = child;
+                    bestEntry = heap[child];
+                }
+            }
+            if (bestEntry.f >= entry.f) {
+                break;
+            }
+            heap[position] = bestEntry;
+            bestEntry.position = position;
+            position = best;
+        }
+        heap[position] = entry;
+        entry.position = position;
+    }
+
+    /**
+     * еһڵ㡢ڵ f ֵڶе±꣬ϣѹͬһ
+     * f ֵڵһ𻺴棬ѵʱֻȽٷ Node
+     */
+    private static final class Entry {
+        Node node;
+        int f;
+        int position;
+
+        Entry(Node node, int position) {
+            this.node = node;
+            this.f = node.evaluation();
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package stud.g01.runner;
+
+import algs4.util.StdRandom;
+import algs4.util.StopwatchCPU;
+import core.problem.Action;
+import core.problem.State;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.queue.PqFrontier;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+/**
+ * PqFrontier ܶԱȲ
+ * Աȴ 4  (PqFrontier) ԭȻ PriorityQueue ʵ֣
+ * ֱͳ offerظ滻 (decrease-key)  poll ׶ÿβƽʱ
+ * f ֵȡ [40, 80) խ䣬 15-puzzle ʵʷֲ
+ * ÷: java stud.g01.runner.FrontierBenchmark [ ...]Ĭ 100000 1000000 10000000
+ */
+public class FrontierBenchmark {
+
+    // 滻׶ִеĴ
+    private static final int MAX_REPLACEMENTS = 100_000;
+    // 滻׶ε CPU ʱ ()ʵÿ滻 O(n)ģʱֻһ
+    private static final double REPLACE_TIME_LIMIT = 5.0;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0
+                ? new int[]{100_000, 1_000_000, 10_000_000}
+                : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        System.out.printf("%-22s %10s %12s %14s %12s%n",
+                "Frontier", "", "offer ns/op", "replace ns/op", "poll ns/op");
+        for (int n : sizes) {
+            run("PqFrontier (4)", PqFrontier::new, n);
+            run("PriorityQueue ()", PriorityQueueFrontier::new, n);
+        }
+    }
+
+    private static void run(String name, Supplier<Frontier> supplier, int n) {
+        // ̶ӣʵʹȫͬĽ
+        StdRandom.setSeed(20240601L);
+        Node[] nodes = new Node[n];
+        for (int i = 0; i < n; i++) {
+            int f = StdRandom.uniform(40, 80);
+            int g = StdRandom.uniform(1, f + 1);
+            nodes[i] = new Node(new Key(i), null, null, g, f - g);
+        }
+        // 滻׶ʹõĸظ㣺״̬ͬg С
+        int replacements = Math.min(MAX_REPLACEMENTS, n);
+        Node[] better = new Node[replacements];
+        for (int i = 0; i < replacements; i++) {
+            Node old = nodes[StdRandom.uniform(n)];
+            better[i] = new Node(old.getState(), null, null, old.getPathCost() - 1, old.getHeuristic());
+        }
+
+        Frontier frontier = supplier.get();
+
+        StopwatchCPU timer = new StopwatchCPU();
+        for (Node node : nodes) {
+            frontier.offer(node);
+        }
+        double offerTime = timer.elapsedTime();
+
+        timer = new StopwatchCPU();
+        int replaced = 0;
+        while (replaced < replacements) {
+            frontier.offer(better[replaced++]);
+            if ((replaced & 63) == 0 && timer.elapsedTime() > REPLACE_TIME_LIMIT) {
+                break;
+            }
+        }
+        double replaceTime = timer.elapsedTime();
+
+        timer = new StopwatchCPU();
+        int polled = 0;
+        while (frontier.poll() != null) {
+            polled++;
+        }
+        double pollTime = timer.elapsedTime();
+
+        if (polled != n) {
+            throw new IllegalStateException(name + " Ľ " + polled + "  " + n + " ");
+        }
+        System.out.printf("%-22s %10d %12.1f %14.1f %12.1f%n", name, n,
+                offerTime * 1e9 / n, replaceTime * 1e9 / replaced, pollTime * 1e9 / n);
+    }
+
+    /**
+     * ֻбŵ״̬״̬ĿŲ
+     * ûпִеĶֻΪ Frontier нļʹ
+     */
+    private static final class Key extends State {
+        private final long id;
+
+        Key(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void draw() {
+            System.out.println(id);
+        }
+
+        @Override
+        public State next(Action action) {
+            return this;
+        }
+
+        @Override
+        public Iterable<? extends Action> actions() {
+            return List.of();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(id * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    /**
+     * ԭȵ PqFrontierPriorityQueue + HashMap滻ظʱ queue.remove ɨ
+     */
+    private static final class PriorityQueueFrontier implements Frontier {
+        private final PriorityQueue<Node> queue = new PriorityQueue<>();
+        private final Map<State, Node> map = new HashMap<>();
+
+        @Override
+        public Node poll() {
+            Node node = queue.poll();
+            if (node != null) {
+                map.remove(node.getState());
+            }
+            return node;
+        }
+
+        @Override
+        public void clear() {
+            queue.clear();
+            map.clear();
+        }
+
+        @Override
+        public int size() {
+            return queue.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        public boolean contains(Node node) {
+            return map.containsKey(node.getState());
+        }
+
+        @Override
+        public boolean offer(Node node) {
+            State state = node.getState();
+            Node existingNode = map.get(state);
+            if (existingNode == null) {
+                queue.add(node);
+                map.put(state, node);
+                return true;
+            }
+            if (node.getPathCost() < existingNode.getPathCost()) {
+                queue.remove(existingNode);
+                queue.add(node);
+                map.put(state, node);
+                return true;
+            }
+            return false;
+        }
+    }
+}
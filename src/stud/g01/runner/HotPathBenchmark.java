@@ -0,0 +1,415 @@
+package stud.g01.runner;
+
+import algs4.util.StdRandom;
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.HeuristicType;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.EvaluationType;
+import core.solver.queue.ExploredSet;
+import core.solver.queue.Frontier;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.NPuzzleProblem;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.queue.PqFrontier;
+import stud.g01.solver.algorithm.heuristic.BlankDistancePredictor;
+import stud.g01.solver.algorithm.heuristic.DisjointPatternDatabasePredictor;
+import stud.g01.solver.algorithm.heuristic.HammingDistancePredictor;
+import stud.g01.solver.algorithm.heuristic.LinearConflictPredictor;
+import stud.g01.solver.algorithm.heuristic.ManhattanDistancePredictor;
+import stud.g01.solver.algorithm.heuristic.WalkingDistancePredictor;
+import stud.problem.pathfinding.Move;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * ȵ·΢׼ԣ̲ Frontier  A* / IDA* 
+ *  JMH ÿԤ֣ٲ֣ÿй̶ʱ䣬
+ *  (ops/sԼ֮)ÿβֽʺ GC  (൱ JMH  -prof gc)
+ * 붼ɹ̶ɣͬ汾֮ĽֱӱȽϡ
+ * ÷: java stud.g01.runner.HotPathBenchmark [ ...]ʱȫ
+ *  -Dnpuzzle.bench.warmup-Dnpuzzle.bench.iterations-Dnpuzzle.bench.time (ÿ) ʱ
+ * DisjointPattern صĲʹ -Dnpuzzle.pdb.dir µݿļʱȹ
+ * ƥ ExploredMemory ʱ (ʱҲ) չÿ״̬ռõĶڴ棬
+ * ״̬ -Dnpuzzle.bench.explored ãĬ 2000000㹻 -Xmx С
+ */
+public class HotPathBenchmark {
+
+    private static final int WARMUP = Integer.getInteger("npuzzle.bench.warmup", 3);
+    private static final int ITERATIONS = Integer.getInteger("npuzzle.bench.iterations", 5);
+    private static final double ITERATION_TIME = Double.parseDouble(System.getProperty("npuzzle.bench.time", "1"));
+    private static final long SEED = 20240601L;
+
+    // ʹõ״̬
+    private static final int BOARDS = 1024;
+    // Frontier ԣȲ FRONTIER_SIZE 㣬ִ FRONTIER_OPS  offer/滻/poll ϲ
+    private static final int FRONTIER_SIZE = 1000;
+    private static final int FRONTIER_OPS = 4000;
+    // չڴԷ״̬
+    private static final int EXPLORED_ENTRIES = Integer.getInteger("npuzzle.bench.explored", 2_000_000);
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    // Խд JIT ѱ뵱 (൱ JMH  Blackhole)
+    private static volatile long sink;
+    // ½Ķдʹݣⱻ滻ⲻ
+    private static Object escaped;
+
+    /**
+     * һԣÿεִ operations βֵ sink
+     */
+    private interface Body {
+        long run();
+    }
+
+    /**
+     * setup ֻڲԱѡʱã׼󷵻ر Body
+     */
+    private static final class Benchmark {
+        private final String name;
+        private final int operations;
+        private final Supplier<Body> setup;
+
+        Benchmark(String name, int operations, Supplier<Body> setup) {
+            this.name = name;
+            this.operations = operations;
+            this.setup = setup;
+        }
+    }
+
+    public static void main(String[] args) {
+        List<Pattern> filters = new ArrayList<>();
+        for (String arg : args) {
+            filters.add(Pattern.compile(arg));
+        }
+
+        System.out.printf("%-36s %14s %12s %12s %10s %6s%n",
+                "Benchmark", "ops/s", "error", "B/op", "MB/s", "GC");
+        for (Benchmark benchmark : benchmarks()) {
+            if (filters.isEmpty() || filters.stream().anyMatch(p -> p.matcher(benchmark.name).find())) {
+                measure(benchmark);
+            }
+        }
+        if (filters.isEmpty() || filters.stream().anyMatch(p -> p.matcher("ExploredMemory").find())) {
+            measureExploredMemory();
+        }
+    }
+
+    private static List<Benchmark> benchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+        PuzzleBoard goal = goal(4);
+        PuzzleBoard[] boards = randomBoards(goal, BOARDS, 200);
+
+        addBoardBenchmarks(benchmarks, boards);
+        addPredictorBenchmarks(benchmarks, "Manhattan", ManhattanDistancePredictor::new, boards, goal);
+        addPredictorBenchmarks(benchmarks, "LinearConflict", LinearConflictPredictor::new, boards, goal);
+        addPredictorBenchmarks(benchmarks, "WalkingDistance", WalkingDistancePredictor::new, boards, goal);
+        addPredictorBenchmarks(benchmarks, "Hamming", HammingDistancePredictor::new, boards, goal);
+        addPredictorBenchmarks(benchmarks, "BlankDistance", BlankDistancePredictor::new, boards, goal);
+        addPredictorBenchmarks(benchmarks, "DisjointPattern", DisjointPatternDatabasePredictor::new, boards, goal);
+
+        Node[] nodes = frontierNodes(goal);
+        addFrontierBenchmark(benchmarks, "PqFrontier", PqFrontier::new, nodes);
+        addFrontierBenchmark(benchmarks, "g01.ListFrontier",
+                () -> new stud.g01.queue.ListFrontier(Node.evaluator(EvaluationType.FULL)), nodes);
+        addFrontierBenchmark(benchmarks, "ListFrontier",
+                () -> new stud.queue.ListFrontier(Node.evaluator(EvaluationType.FULL)), nodes);
+
+        PuzzleFeeder feeder = new PuzzleFeeder();
+        List<Problem> puzzles8 = problems(goal(3), 20, 60);
+        List<Problem> puzzles15 = problems(goal, 10, 60);
+        addSolveBenchmark(benchmarks, "solve.aStar.8.MANHATTAN", () -> feeder.getAStar(HeuristicType.MANHATTAN), puzzles8);
+        addSolveBenchmark(benchmarks, "solve.aStar.8.MISPLACED", () -> feeder.getAStar(HeuristicType.MISPLACED), puzzles8);
+        addSolveBenchmark(benchmarks, "solve.idaStar.8.MANHATTAN", () -> feeder.getIdaStar(HeuristicType.MANHATTAN), puzzles8);
+        addSolveBenchmark(benchmarks, "solve.aStar.15.MANHATTAN", () -> feeder.getAStar(HeuristicType.MANHATTAN), puzzles15);
+        addSolveBenchmark(benchmarks, "solve.idaStar.15.MANHATTAN", () -> feeder.getIdaStar(HeuristicType.MANHATTAN), puzzles15);
+        addSolveBenchmark(benchmarks, "solve.idaStar.15.DISJOINT_PATTERN",
+                () -> feeder.getIdaStar(HeuristicType.DISJOINT_PATTERN), puzzles15);
+        return benchmarks;
+    }
+
+    /* ===================== Զ ===================== */
+
+    private static void addBoardBenchmarks(List<Benchmark> benchmarks, PuzzleBoard[] boards) {
+        int moves = 0;
+        for (PuzzleBoard board : boards) {
+            moves += board.moves().size();
+        }
+        benchmarks.add(new Benchmark("board.next", moves, () -> () -> {
+            long sum = 0;
+            for (PuzzleBoard board : boards) {
+                List<Move> actions = board.moves();
+                for (int i = 0; i < actions.size(); i++) {
+                    PuzzleBoard child = (PuzzleBoard) board.next(actions.get(i));
+                    escaped = child;
+                    sum += child.getBlankIndex();
+                }
+            }
+            return sum;
+        }));
+        benchmarks.add(new Benchmark("board.hashCode", boards.length, () -> () -> {
+            long sum = 0;
+            for (PuzzleBoard board : boards) {
+                sum += board.hashCode();
+            }
+            return sum;
+        }));
+    }
+
+    /**
+     * ֵԤһɸ h ӽ h
+     */
+    private static void addPredictorBenchmarks(List<Benchmark> benchmarks, String name, Supplier<Predictor> supplier,
+                                               PuzzleBoard[] boards, PuzzleBoard goal) {
+        Predictor predictor = supplier.get();
+        benchmarks.add(new Benchmark("predictor." + name, boards.length, () -> () -> {
+            long sum = 0;
+            for (PuzzleBoard board : boards) {
+                sum += predictor.heuristics(board, goal);
+            }
+            return sum;
+        }));
+
+        if (!(predictor instanceof IncrementalPredictor incremental)) {
+            return;
+        }
+        benchmarks.add(new Benchmark("predictor." + name + ".incremental", boards.length, () -> {
+            int[] heuristics = new int[boards.length];
+            for (int i = 0; i < boards.length; i++) {
+                heuristics[i] = predictor.heuristics(boards[i], goal);
+            }
+            return () -> {
+                long sum = 0;
+                for (int i = 0; i < boards.length; i++) {
+                    PuzzleBoard board = boards[i];
+                    sum += incremental.heuristics(board, heuristics[i], board.moves().get(0), goal);
+                }
+                return sum;
+            };
+        }));
+    }
+
+    /**
+     * nodes ǰ FRONTIER_SIZE Ȳ룬ఴ offer ½ : 滻Ϊ g Сظ : poll = 2 : 1 : 2 ıϣ
+     * 滻ĿȡѲĽ㣬ʵִȫͬĲ
+     */
+    private static void addFrontierBenchmark(List<Benchmark> benchmarks, String name, Supplier<Frontier> supplier,
+                                             Node[] nodes) {
+        benchmarks.add(new Benchmark("frontier." + name, FRONTIER_SIZE + FRONTIER_OPS, () -> () -> {
+            Frontier frontier = supplier.get();
+            long sum = 0;
+            for (Node node : nodes) {
+                if (node == null) {
+                    Node polled = frontier.poll();
+                    sum += polled == null ? 0 : polled.getPathCost();
+                } else {
+                    sum += frontier.offer(node) ? 1 : 0;
+                }
+            }
+            return sum + frontier.size();
+        }));
+    }
+
+    private static void addSolveBenchmark(List<Benchmark> benchmarks, String name, Supplier<AbstractSearcher> supplier,
+                                          List<Problem> problems) {
+        benchmarks.add(new Benchmark(name, problems.size(), () -> {
+            AbstractSearcher searcher = supplier.get();
+            return () -> {
+                long sum = 0;
+                for (Problem problem : problems) {
+                    sum += searcher.search(problem).size();
+                }
+                return sum;
+            };
+        }));
+    }
+
+    /* =====================  ===================== */
+
+    private static void measure(Benchmark benchmark) {
+        Body body = benchmark.setup.get();
+        for (int i = 0; i < WARMUP; i++) {
+            iteration(body, benchmark.operations);
+        }
+
+        double[] throughput = new double[ITERATIONS];
+        long operations = 0;
+        long allocated = 0;
+        long gcCount = 0;
+        double seconds = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long gcBefore = gcCount();
+            long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long done = iteration(body, benchmark.operations);
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            allocated += THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+            gcCount += gcCount() - gcBefore;
+
+            throughput[i] = done / elapsed;
+            operations += done;
+            seconds += elapsed;
+        }
+
+        double mean = 0;
+        for (double value : throughput) {
+            mean += value;
+        }
+        mean /= ITERATIONS;
+        double variance = 0;
+        for (double value : throughput) {
+            variance += (value - mean) * (value - mean);
+        }
+        // ȡ׼ԼΪ 95% İ
+        double error = ITERATIONS > 1 ? 2 * Math.sqrt(variance / (ITERATIONS - 1) / ITERATIONS) : Double.NaN;
+
+        System.out.printf("%-36s %14.1f %12.1f %12.2f %10.1f %6d%n", benchmark.name, mean, error,
+                (double) allocated / operations, allocated / seconds / (1 << 20), gcCount);
+    }
+
+    /**
+     * òֱһֵʱ
+     * @return ִеĲ
+     */
+    private static long iteration(Body body, int operations) {
+        long deadline = System.nanoTime() + (long) (ITERATION_TIME * 1e9);
+        long calls = 0;
+        long sum = 0;
+        do {
+            sum += body.run();
+            calls++;
+        } while (System.nanoTime() < deadline);
+        sink = sum;
+        return calls * operations;
+    }
+
+    /**
+     * չÿ״̬ռõĶڴ棺ͬһ߰ 4x4 ̷ֱŽ HashSet<State>  ExploredSet
+     * Էǰ GC ֮Ķռ֮Լе״̬
+     * HashSet ̶ (ͬϣ)ExploredSet ֻ long漴Ϊ
+     */
+    private static void measureExploredMemory() {
+        System.out.printf("%n%-36s %14s %12s%n", "ExploredMemory", "states", "B/state");
+        // д escaped֤ڶ GC ʱԿɴһдʱǰһ漴Ϊ
+        Set<State> states = new HashSet<>();
+        reportExploredMemory("HashSet<State>", () -> {
+            randomWalk(board -> states.add(board.copy()));
+            return states.size();
+        });
+        escaped = states;
+        ExploredSet explored = new ExploredSet();
+        reportExploredMemory("ExploredSet (LongHashSet)", () -> {
+            randomWalk(explored::add);
+            return explored.size();
+        });
+        escaped = explored;
+    }
+
+    private static void reportExploredMemory(String name, IntSupplier fill) {
+        long before = usedHeap();
+        int size = fill.getAsInt();
+        long after = usedHeap();
+        System.out.printf("%-36s %14d %12.1f%n", name, size, (double) (after - before) / size);
+    }
+
+    /**
+     *  4x4 Ŀ״̬ߣΰѾ״̬ visitorֱ EXPLORED_ENTRIES 
+     *  visitor ͬһ̣Ҫʱ visitor Լ
+     */
+    private static void randomWalk(Consumer<PuzzleBoard> visitor) {
+        StdRandom.setSeed(SEED);
+        PuzzleBoard board = goal(4).copy();
+        for (int step = 0; step < EXPLORED_ENTRIES; step++) {
+            List<Move> moves = board.moves();
+            board.slide(board.neighbour(moves.get(StdRandom.uniform(moves.size())).getDirection()));
+            visitor.accept(board);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(gc.getCollectionCount(), 0);
+        }
+        return count;
+    }
+
+    /* =====================  ===================== */
+
+    private static PuzzleBoard goal(int size) {
+        int[][] grid = new int[size][size];
+        for (int i = 0; i < size * size - 1; i++) {
+            grid[i / size][i % size] = i + 1;
+        }
+        return new PuzzleBoard(grid);
+    }
+
+    /**
+     * Ŀ״̬ steps ọ֤̃н
+     */
+    private static PuzzleBoard[] randomBoards(PuzzleBoard goal, int count, int steps) {
+        StdRandom.setSeed(SEED);
+        PuzzleBoard[] boards = new PuzzleBoard[count];
+        for (int i = 0; i < count; i++) {
+            PuzzleBoard board = goal;
+            for (int step = 0; step < steps; step++) {
+                List<Move> moves = board.moves();
+                board = (PuzzleBoard) board.next(moves.get(StdRandom.uniform(moves.size())));
+            }
+            boards[i] = board;
+        }
+        return boards;
+    }
+
+    private static List<Problem> problems(PuzzleBoard goal, int count, int steps) {
+        List<Problem> problems = new ArrayList<>();
+        for (PuzzleBoard board : randomBoards(goal, count, steps)) {
+            problems.add(new NPuzzleProblem(board, goal, goal.getSize()));
+        }
+        return problems;
+    }
+
+    /**
+     * Frontier ԵĲУnull ʾһ poll
+     */
+    private static Node[] frontierNodes(PuzzleBoard goal) {
+        PuzzleBoard[] boards = randomBoards(goal, FRONTIER_SIZE + FRONTIER_OPS, 200);
+        Predictor predictor = new ManhattanDistancePredictor();
+        Node[] nodes = new Node[FRONTIER_SIZE + FRONTIER_OPS];
+        List<Node> offered = new ArrayList<>();
+        int next = 0;
+        for (int i = 0; i < nodes.length; i++) {
+            int kind = i < FRONTIER_SIZE ? 0 : StdRandom.uniform(5);
+            if (kind <= 1) {
+                State state = boards[next++];
+                int g = StdRandom.uniform(20, 60);
+                nodes[i] = new Node(state, null, null, g, predictor.heuristics(state, goal));
+                offered.add(nodes[i]);
+            } else if (kind == 2) {
+                Node old = offered.get(StdRandom.uniform(offered.size()));
+                nodes[i] = new Node(old.getState(), null, null, old.getPathCost() - 1, old.getHeuristic());
+            }
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,25 @@
+package stud.g01.runner;
+
+import stud.g01.solver.algorithm.heuristic.DisjointPatternDatabasePredictor;
+import stud.g01.solver.algorithm.heuristic.DisjointPatternDatabasePredictor.Partition;
+
+/**
+ * ߹ 15-puzzle ļģʽݿ
+ * ݿļд -Dnpuzzle.pdb.dir ָĿ¼ (ĬϵǰĿ¼)ʱͬһĿ¼ֱӼء
+ * 7-8 鹹ʱҪԼ 2GB ڴ棬 -Xmx3g ϡ
+ * ͬʱÿڲ㲢У߳ -Djava.util.concurrent.ForkJoinPool.common.parallelism ָ
+ * ÷: java stud.g01.runner.PatternDatabaseGenerator [SIX_SIX_THREE|FIVE_FIVE_FIVE|SEVEN_EIGHT ...]Ĭ SEVEN_EIGHT
+ */
+public class PatternDatabaseGenerator {
+
+    public static void main(String[] args) {
+        String[] names = args.length == 0 ? new String[]{Partition.SEVEN_EIGHT.name()} : args;
+        for (String name : names) {
+            Partition partition = Partition.valueOf(name);
+            // ڶ߳нУͳǽʱ
+            long startTime = System.nanoTime();
+            new DisjointPatternDatabasePredictor(partition).prepare(4);
+            System.out.printf("%s ׼ɣʱ %.1fs%n", partition, (System.nanoTime() - startTime) / 1e9);
+        }
+    }
+}
@@ -10,12 +10,17 @@ import core.solver.queue.EvaluationType;
 import core.solver.queue.Frontier;
 import core.solver.queue.Node;
 import stud.g01.solver.algorithm.heuristic.DisjointPatternDatabasePredictor;
+import stud.g01.solver.algorithm.heuristic.DisjointPatternDatabasePredictor.Partition;
 import stud.g01.solver.algorithm.heuristic.HammingDistancePredictor;
+import stud.g01.solver.algorithm.heuristic.LinearConflictPredictor;
 import stud.g01.solver.algorithm.heuristic.ManhattanDistancePredictor;
+import stud.g01.solver.algorithm.heuristic.WalkingDistancePredictor;
+import stud.g01.queue.BucketFrontier;
 import stud.g01.queue.PqFrontier;
 import stud.g01.queue.ListFrontier;
 import stud.g01.problem.npuzzle.NPuzzleProblem;
 import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.g01.solver.algorithm.searcher.CompactAStar;
 import stud.g01.solver.algorithm.searcher.aStar;
 
 import java.util.ArrayList;
@@ -69,6 +74,13 @@ public class PuzzleFeeder extends EngineFeeder {
         return allProblems;
     }
 
+    // A* ʹõ Frontier ʵ֣ -Dnpuzzle.frontier=PQ|LIST|BUCKET|BUCKET_DEEP ѡĬ PQ
+    private static final String FRONTIER = System.getProperty("npuzzle.frontier", "PQ");
+    // -Dnpuzzle.astar.compact=true ʱ A* ʹ CompactAStarƽеԭʼУ Node 
+    private static final boolean COMPACT_ASTAR = Boolean.getBoolean("npuzzle.astar.compact");
+    // -Dnpuzzle.astar.offheap=true ʱ CompactAStar ѽ open ڶڴ ( compact)
+    private static final boolean OFF_HEAP_ASTAR = Boolean.getBoolean("npuzzle.astar.offheap");
+
     /**
      * ָͣṩӦ Frontier ʵ
      * @param type  (FULL, HEURISTIC, etc.)
@@ -78,9 +90,15 @@ public class PuzzleFeeder extends EngineFeeder {
     public Frontier getFrontier(EvaluationType type) {
         return switch (type) {
             //  A* 㷨 (f = g + h)
-            case FULL -> new PqFrontier();
-            //ܲԣʹListFrontier
-//            case FULL -> new ListFrontier(Node.evaluator(EvaluationType.FULL));
+            case FULL -> switch (FRONTIER) {
+                //ܲԣʹListFrontier
+                case "LIST" -> new ListFrontier(Node.evaluator(EvaluationType.FULL));
+                //  f Ͱf ͬʱȡǳĽ
+                case "BUCKET" -> new BucketFrontier(EvaluationType.FULL, false);
+                //  f Ͱf ͬʱȡĽ
+                case "BUCKET_DEEP" -> new BucketFrontier(EvaluationType.FULL, true);
+                default -> new PqFrontier();
+            };
             //  IDA* 㷨
             case HEURISTIC -> new PqFrontier();
             default -> throw new IllegalArgumentException("ֵ֧ EvaluationType: " + type);
@@ -97,10 +115,16 @@ public class PuzzleFeeder extends EngineFeeder {
         return switch (type) {
             // پ
             case MANHATTAN -> new ManhattanDistancePredictor();
+            // پ + Գͻ
+            case LINEAR_CONFLICT -> new LinearConflictPredictor();
+            // Walking Distanceֱ 1MBԶСģʽݿ
+            case WALKING_DISTANCE -> new WalkingDistancePredictor();
             // λӾ ()
             case MISPLACED -> new HammingDistancePredictor();
             //ཻݿ
             case DISJOINT_PATTERN -> new DisjointPatternDatabasePredictor();
+            //7-8Ĳཻݿ⣬ PatternDatabaseGenerator ߹
+            case DISJOINT_PATTERN_78 -> new DisjointPatternDatabasePredictor(Partition.SEVEN_EIGHT);
             default -> {
                 System.out.println("δ֪, Ĭʹپ");
                 yield new ManhattanDistancePredictor();
@@ -118,6 +142,10 @@ public class PuzzleFeeder extends EngineFeeder {
     public AbstractSearcher getAStar(HeuristicType type) {
         // ȡָʵ
         Predictor predictor = this.getPredictor(type);
+        if (COMPACT_ASTAR || OFF_HEAP_ASTAR) {
+            // Դ open ʹ Frontier
+            return new CompactAStar(predictor, OFF_HEAP_ASTAR);
+        }
         // ȡ A* ȶ Frontier
         Frontier frontier = this.getFrontier(EvaluationType.FULL);
         // 첢Լ aStar ʵ
@@ -10,16 +10,8 @@ public class BlankDistancePredictor implements Predictor {
     public int heuristics(State state, State goal) {
         PuzzleBoard s = (PuzzleBoard) state;
         PuzzleBoard g = (PuzzleBoard) goal;
-        int size = s.getSize();
-        int[][] sg = s.getGrid();
-        int[][] gg = g.getGrid();
-
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (sg[i][j] == 0 && gg[i][j] != 0) {
-                    return 1; // λĿλãҪһƶ
-                }
-            }
+        if (s.getBlankIndex() != g.getBlankIndex()) {
+            return 1; // λĿλãҪһƶ
         }
         return 0; // λѾȷλ
     }
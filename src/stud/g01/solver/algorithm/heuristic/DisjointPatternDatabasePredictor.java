@@ -1,32 +1,167 @@
 package stud.g01.solver.algorithm.heuristic;
 
 import core.problem.State;
-import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
 import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.problem.pathfinding.Move;
 import core.problem.Action;
+import core.problem.UnsupportedProblemException;
 
-import java.io.*;
-import java.nio.file.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class DisjointPatternDatabasePredictor implements Predictor {
+public class DisjointPatternDatabasePredictor implements IncrementalPredictor {
 
-    // ̬ݿ⻺棬ظ
-    private static final Map<Integer, DisjointPatternDatabase> DATABASE_CACHE = new HashMap<>();
+    // ̬ݿ⻺棬ظΪģ鷽
+    // ߳ͬʱʱͬһݿֻᱻһΣ̵߳ȴ future ɣ
+    // ڹϣ֮Уסе
+    private static final Map<String, CompletableFuture<DisjointPatternDatabase>> DATABASE_CACHE = new ConcurrentHashMap<>();
+
+    // ݿļĿ¼ -Dnpuzzle.pdb.dir ָĬΪǰĿ¼
+    private static final String CACHE_DIR = System.getProperty("npuzzle.pdb.dir", ".");
+
+    // ȡǿհ׸λϵСֱֻۣ״̬ʱͿɲɵ㵥ƣ
+    // ״̬ h ֮ܳ 1ֱֲӲȡֵͬɲɡ㵥ơ
+    // ڵԸС g ´չ״̬ (aStarCompactAStar) (IDA*RBFSSMA*)
+    //  BFIDA* ƽƣֲʽԵõŽ
+
+    // Ƿͬʱ鷴״̬ (-Dnpuzzle.pdb.reflect=false ر)
+    private static final boolean REFLECT = Boolean.parseBoolean(System.getProperty("npuzzle.pdb.reflect", "true"));
+    // Ƿͬʱż״̬ (-Dnpuzzle.pdb.dual=true 򿪣ĬϹر)
+    private static final boolean DUAL = Boolean.getBoolean("npuzzle.pdb.dual");
+
+    /**
+     * 15-puzzle ķ鷽8-puzzle ʼʹ 4-4 
+     */
+    public enum Partition {
+        // 6-6-3飺ֻ룬ĬϷ
+        SIX_SIX_THREE(new int[][]{{1, 2, 5, 6, 9, 13}, {3, 4, 7, 8, 11, 12}, {10, 14, 15}}),
+        // 5-5-5飺С
+        FIVE_FIVE_FIVE(new int[][]{{1, 2, 3, 5, 6}, {4, 7, 8, 11, 12}, {9, 10, 13, 14, 15}}),
+        // 7-8飺 8 Ƭ 7 Ƭֵǿ8 ƬıԼ 260MB߹
+        SEVEN_EIGHT(new int[][]{{1, 2, 3, 4, 5, 6, 7, 8}, {9, 10, 11, 12, 13, 14, 15}});
+
+        private final int[][] groups;
+
+        Partition(int[][] groups) {
+            this.groups = groups;
+        }
+    }
+
+    // ֵ״̬Ļ棬״ֱ̬ӳ䣬 2^RECENT_BITS 
+    private static final int RECENT_BITS = 12;
+    private static final long MISSING = 0L;
+    private static final long VALID = 1L << 32;
+
+    private final Partition partition;
+    // 򿪷żʱֵ״̬βĽӽΪ null
+    // ÿ long(key ^ data, data)ʱ߳д˺ѵıУ鲻ͨΪ
+    private final long[] recent = REFLECT || DUAL ? new long[2 << RECENT_BITS] : null;
+    // һʹõݿ⣬·ϲÿƴӼȥȫֻ
+    private DisjointPatternDatabase database;
+
+    public DisjointPatternDatabasePredictor() {
+        this(Partition.SIX_SIX_THREE);
+    }
+
+    public DisjointPatternDatabasePredictor(Partition partition) {
+        this.partition = partition;
+    }
 
     @Override
     public int heuristics(State state, State goal) {
         PuzzleBoard current = (PuzzleBoard) state;
-        PuzzleBoard goalBoard = (PuzzleBoard) goal;
-        int size = current.getSize();
+        DisjointPatternDatabase database = getDatabase(current.getSize());
+        if (recent == null) {
+            return database.calculateHeuristic(current, (PuzzleBoard) goal);
+        }
+        long costs = database.costs(current);
+        remember(current.key(), costs);
+        return DisjointPatternDatabase.maxCost(costs);
+    }
 
-        validatePuzzleSize(size);
+    /**
+     * ֵ򿪷żʱֵǼβֵ޷ֱӰ
+     * ȴֵĻȡ״̬βĽ (ڻʱ²)ֱȡֵ
+     */
+    @Override
+    public int heuristics(State parent, int parentHeuristics, Action action, State goal) {
+        PuzzleBoard current = (PuzzleBoard) parent;
+        DisjointPatternDatabase database = getDatabase(current.getSize());
+        if (recent == null) {
+            return database.updateHeuristic(current, parentHeuristics, action, (PuzzleBoard) goal);
+        }
+        long key = current.key();
+        long costs = recall(key);
+        if (costs == MISSING) {
+            costs = database.costs(current);
+            remember(key, costs);
+        }
+        int blank = current.getBlankIndex();
+        int from = current.neighbour(((Move) action).getDirection());
+        int tile = current.tileAt(from);
+        long child = database.childCosts(current, costs, from, blank);
+        remember(key ^ ((long) tile << (from * 4)) ^ ((long) tile << (blank * 4)), child);
+        return DisjointPatternDatabase.maxCost(child);
+    }
+
+    // ӻȡ key ĸβʱΪ MISSING
+    private long recall(long key) {
+        int slot = slotOf(key);
+        long data = recent[slot + 1];
+        return data != MISSING && (recent[slot] ^ data) == key ? data : MISSING;
+    }
+
+    private void remember(long key, long costs) {
+        int slot = slotOf(key);
+        long data = costs | VALID;
+        recent[slot] = key ^ data;
+        recent[slot + 1] = data;
+    }
 
-        // ӳټݿ
-        DisjointPatternDatabase database = DATABASE_CACHE.computeIfAbsent(size,
-                s -> new DisjointPatternDatabase(s, createOptimalGrouping(s)));
+    private static int slotOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - RECENT_BITS)) << 1;
+    }
+
+    /**
+     * ǰָģݿ⣬ݿļʱ棬߹ʹ
+     * @param size ̱߳
+     */
+    public void prepare(int size) {
+        getDatabase(size);
+    }
+
+    /**
+     * ȡָģݿ⣬һʹʱӳټأ
+     */
+    private DisjointPatternDatabase getDatabase(int size) {
+        DisjointPatternDatabase last = database;
+        if (last != null && last.size == size) {
+            return last;
+        }
+        validatePuzzleSize(size);
 
-        return database.calculateHeuristic(current, goalBoard);
+        String key = size == 3 ? "3" : size + "-" + partition;
+        CompletableFuture<DisjointPatternDatabase> pending = new CompletableFuture<>();
+        CompletableFuture<DisjointPatternDatabase> existing = DATABASE_CACHE.putIfAbsent(key, pending);
+        if (existing == null) {
+            // ɱ̹߳ʧʱƳռλ֮ĵÿ
+            try {
+                pending.complete(new DisjointPatternDatabase(size, createOptimalGrouping(size)));
+            } catch (RuntimeException | Error e) {
+                DATABASE_CACHE.remove(key, pending);
+                pending.completeExceptionally(e);
+                throw e;
+            }
+            existing = pending;
+        }
+        database = existing.join();
+        return database;
     }
 
     /**
@@ -34,7 +169,7 @@ public class DisjointPatternDatabasePredictor implements Predictor {
      */
     private void validatePuzzleSize(int size) {
         if (size != 3 && size != 4) {
-            throw new IllegalArgumentException("֧3x3(8-puzzle)4x4(15-puzzle)ģƴͼ");
+            throw new UnsupportedProblemException("֧3x3(8-puzzle)4x4(15-puzzle)ģƴͼ");
         }
     }
 
@@ -49,11 +184,14 @@ public class DisjointPatternDatabasePredictor implements Predictor {
             groups.add(Arrays.asList(1, 2, 3, 4));  // ϰ벿
             groups.add(Arrays.asList(5, 6, 7, 8));  // °벿
         } else {
-            // 15-puzzle: 6-6-3飨ŷ飩
-            groups.add(Arrays.asList(1, 2, 3, 4));    // 
-            groups.add(Arrays.asList(5, 6, 7, 8)); // 
-            groups.add(Arrays.asList(9, 10, 11, 12));
-            groups.add(Arrays.asList(13, 14, 15)); // ײ
+            // 15-puzzle: ѡķ鷽
+            for (int[] group : partition.groups) {
+                List<Integer> tiles = new ArrayList<>();
+                for (int tile : group) {
+                    tiles.add(tile);
+                }
+                groups.add(tiles);
+            }
         }
 
         return groups;
@@ -61,33 +199,82 @@ public class DisjointPatternDatabasePredictor implements Predictor {
 
     /* ===================== ģʽݿڲ ====================== */
     private static class DisjointPatternDatabase {
+        // ﵽֵʱѹΪÿģʽ 4 λ
+        private static final int PACK_THRESHOLD = 1 << 26;
+
         private final int size;
         private final List<List<Integer>> disjointGroups;
-        private final List<Map<String, Integer>> patternDatabases;
+        // ÿƬհ׸
+        private final int[][] patternTiles;
+        // groupOf[tile]Ƭڵķ飬κηʱΪ -1
+        private final int[] groupOf;
+        // ÿһűģʽƬλõ (rank) 
+        private final List<PatternTable> patternDatabases;
         private final String cachePrefix;
+        // reflectedCell[cell]cell ԽߵĶԳƸӣreflectedTile[tile]Ŀλ tile ĶԳƵƬ
+        private final int[] reflectedCell;
+        private final int[] reflectedTile;
+        // goalCell[tile]tile ĿλãgoalTile[cell]Ŀ״̬ cell ϵƬ
+        private final int[] goalCell;
+        private final int[] goalTile;
+        private final int goalBlank;
 
         DisjointPatternDatabase(int size, List<List<Integer>> groups) {
             this.size = size;
             this.disjointGroups = groups;
+            this.patternTiles = new int[groups.size()][];
+            this.groupOf = new int[size * size];
+            Arrays.fill(groupOf, -1);
+            for (int i = 0; i < groups.size(); i++) {
+                List<Integer> group = groups.get(i);
+                patternTiles[i] = new int[group.size()];
+                for (int j = 0; j < group.size(); j++) {
+                    patternTiles[i][j] = group.get(j);
+                    groupOf[group.get(j)] = i;
+                }
+            }
             this.patternDatabases = new ArrayList<>();
-            this.cachePrefix = "disjoint-pdb-" + size + "x" + size + "-";
+            this.cachePrefix = "additive-pdb-" + size + "x" + size + "-";
+
+            PuzzleBoard goal = createGoalBoard(size);
+            int cells = size * size;
+            this.reflectedCell = new int[cells];
+            this.reflectedTile = new int[cells];
+            this.goalCell = new int[cells];
+            this.goalTile = new int[cells];
+            for (int cell = 0; cell < cells; cell++) {
+                reflectedCell[cell] = cell % size * size + cell / size;
+                goalTile[cell] = goal.tileAt(cell);
+                goalCell[goal.tileAt(cell)] = cell;
+            }
+            for (int cell = 0; cell < cells; cell++) {
+                reflectedTile[goalTile[cell]] = goalTile[reflectedCell[cell]];
+            }
+            this.goalBlank = goal.getBlankIndex();
 
             initializeDatabases();
         }
 
         /**
-         * ʼģʽݿ
+         * ʼģʽݿ⣬໥ͬʱػ򹹽
          */
         private void initializeDatabases() {
             PuzzleBoard goal = createGoalBoard(size);
 
+            List<CompletableFuture<PatternTable>> pending = new ArrayList<>();
+            for (int i = 0; i < disjointGroups.size(); i++) {
+                int groupIndex = i;
+                pending.add(CompletableFuture.supplyAsync(
+                        () -> loadOrBuildDatabase(goal, disjointGroups.get(groupIndex), groupIndex)));
+            }
+
             for (int i = 0; i < disjointGroups.size(); i++) {
                 List<Integer> group = disjointGroups.get(i);
-                Map<String, Integer> db = loadOrBuildDatabase(goal, group, i);
+                PatternTable db = pending.get(i).join();
                 patternDatabases.add(db);
 
-                System.out.printf("ģʽݿ %d:  %s, ״̬ %d%n",
-                        i + 1, group, db.size());
+                System.out.printf("ģʽݿ %d:  %s, ״̬ %d, %d ֽ%n",
+                        i + 1, group, db.states, db.data.capacity());
             }
         }
 
@@ -95,30 +282,115 @@ public class DisjointPatternDatabasePredictor implements Predictor {
          * ʽֵ㷨- ɼԭ
          */
         int calculateHeuristic(PuzzleBoard current, PuzzleBoard goal) {
-            int totalHeuristic = 0;
+            // һɨõƬλã
+            return additiveCost(current.positions());
+        }
 
-            // ÿཻģʽֱ㲢ۼӣɼԶ
-            for (int i = 0; i < disjointGroups.size(); i++) {
-                List<Integer> group = disjointGroups.get(i);
-                Map<String, Integer> db = patternDatabases.get(i);
+        /**
+         * ״̬ʽֵ
+         * ֻģʽƬλãһƶֻı䱻ƶƬڷģʽĴ۲
+         */
+        int updateHeuristic(PuzzleBoard parent, int parentHeuristic, Action action, PuzzleBoard goal) {
+            int blank = parent.getBlankIndex();
+            int from = parent.neighbour(((Move) action).getDirection());
+            int tile = parent.tileAt(from);
+            int group = groupOf[tile];
+            if (group < 0) {
+                return parentHeuristic;
+            }
+
+            long where = parent.positions();
+            long moved = where & ~(0xFL << (tile * 4)) | ((long) blank << (tile * 4));
+            return parentHeuristic - getPatternCost(where, group) + getPatternCost(moved, group);
+        }
+
+        /**
+         * һɨͬʱõ board Խ߷䲢±ź״̬Լż״̬иƬλã
+         * ԲͣΪ ֱӲ |  << 8 | ż << 16 (δΪ 0)
+         * 䣺λ (r, c) Ƭ t Ŀλ t ĿλùԽ߶ԳƵƬŵ (c, r)
+         * Ŀ״̬󲻱䣬˷״̬Ŀľԭ״̬ͬ
+         * żƬĿλã״̬һûż״̬û
+         * ĿλΪ x Ƭŵǰλ x ƬĿλϡֻпհ׸Ŀλʱ
+         * طִԭ״̬ĽǶż״̬Ľ⣬߾ͬ״̬ż
+         */
+        long costs(PuzzleBoard board) {
+            int cells = size * size;
+            long where = 0L;
+            long reflected = 0L;
+            for (int cell = 0; cell < cells; cell++) {
+                int tile = board.tileAt(cell);
+                where |= (long) cell << (tile * 4);
+                reflected |= (long) reflectedCell[cell] << (reflectedTile[tile] * 4);
+            }
+            int dual = DUAL && board.getBlankIndex() == goalBlank ? additiveCost(dual(board, -1, -1)) : 0;
+            return pack(additiveCost(where), REFLECT ? additiveCost(reflected) : 0, dual);
+        }
 
-                int patternCost = getPatternCost(current, group, db);
-                totalHeuristic += patternCost;
+        /**
+         * ɸ״̬ costs õ״̬ (from Ƭ blank )  costs
+         * ֱӲ뷴ֻбƶƬ (ΪĶԳƬ) ڷģʽ仯
+         * ż״̬лƬλãֻ״̬Ŀհ׸صĿλʱ²
+         */
+        long childCosts(PuzzleBoard parent, long costs, int from, int blank) {
+            int cells = size * size;
+            long where = 0L;
+            long reflected = 0L;
+            for (int cell = 0; cell < cells; cell++) {
+                int tile = parent.tileAt(cell);
+                where |= (long) cell << (tile * 4);
+                reflected |= (long) reflectedCell[cell] << (reflectedTile[tile] * 4);
             }
+            int tile = parent.tileAt(from);
+            int direct = moveCost(where, costs & 0xFF, tile, blank);
+            int mirror = REFLECT ? moveCost(reflected, (costs >>> 8) & 0xFF, reflectedTile[tile], reflectedCell[blank]) : 0;
+            int dual = DUAL && from == goalBlank ? additiveCost(dual(parent, from, blank)) : 0;
+            return pack(direct, mirror, dual);
+        }
+
+        static int maxCost(long costs) {
+            return (int) Math.max(costs & 0xFF, Math.max((costs >>> 8) & 0xFF, (costs >>> 16) & 0xFF));
+        }
 
+        // Ƭ tile Ƶ to Ĵֻ֮ͣ² tile ڷ
+        private int moveCost(long where, long cost, int tile, int to) {
+            int group = groupOf[tile];
+            if (group < 0) {
+                return (int) cost;
+            }
+            long moved = where & ~(0xFL << (tile * 4)) | ((long) to << (tile * 4));
+            return (int) cost - getPatternCost(where, group) + getPatternCost(moved, group);
+        }
+
+        // ż״̬иƬλãfrom Ϊ -1 ʱΪ board  from Ƭ blank ֮״̬
+        private long dual(PuzzleBoard board, int from, int blank) {
+            int cells = size * size;
+            long dual = 0L;
+            for (int cell = 0; cell < cells; cell++) {
+                int tile = cell == from ? 0 : cell == blank ? board.tileAt(from) : board.tileAt(cell);
+                dual |= (long) goalCell[tile] << (goalTile[cell] * 4);
+            }
+            return dual;
+        }
+
+        private static long pack(int direct, int reflected, int dual) {
+            return direct | (long) reflected << 8 | (long) dual << 16;
+        }
+
+        // ֮
+        private int additiveCost(long where) {
+            int totalHeuristic = 0;
+            // ÿཻģʽֱ㲢ۼӣɼԶ
+            for (int i = 0; i < patternTiles.length; i++) {
+                totalHeuristic += getPatternCost(where, i);
+            }
             return totalHeuristic;
         }
 
         /**
          * ȡģʽĴ
          */
-        private int getPatternCost(PuzzleBoard board, List<Integer> group,
-                                   Map<String, Integer> database) {
-            String stateCode = encodePatternState(board, group);
-            Integer cost = database.get(stateCode);
-
-            // ݿвڣʹ÷پΪ
-            return cost != null ? cost : calculateGroupManhattan(board, group);
+        private int getPatternCost(long where, int groupIndex) {
+            return patternDatabases.get(groupIndex).cost(where);
         }
 
         /* ===================== ݿ⹹㷨 ===================== */
@@ -126,101 +398,55 @@ public class DisjointPatternDatabasePredictor implements Predictor {
         /**
          * ػ򹹽ݿ
          */
-        private Map<String, Integer> loadOrBuildDatabase(PuzzleBoard goal,
-                                                         List<Integer> group, int groupIndex) {
-            String cacheFile = cachePrefix + "group" + groupIndex + ".cache";
+        private PatternTable loadOrBuildDatabase(PuzzleBoard goal, List<Integer> group, int groupIndex) {
+            StringBuilder name = new StringBuilder(cachePrefix);
+            for (int tile : patternTiles[groupIndex]) {
+                name.append(tile).append('_');
+            }
+            Path cacheFile = Paths.get(CACHE_DIR, name.append("group.pdb").toString());
+            int[] tiles = patternTiles[groupIndex];
+            int tableSize = PatternDatabaseBuilder.tableSize(size * size, tiles.length);
 
-            // Դӻ
-            Map<String, Integer> cachedDb = loadDatabaseFromCache(cacheFile);
-            if (cachedDb != null) {
+            // ӳеݿļ
+            PatternDatabaseFile mapped = PatternDatabaseFile.open(cacheFile, size, tiles, goal, tableSize);
+            if (mapped != null) {
                 System.out.println("ػݿ: " + cacheFile);
-                return cachedDb;
+                return new PatternTable(size, tiles, goal, mapped.data, mapped.entryBits == 4, mapped.states);
             }
 
-            // ¹ݿ⣨BFS㷨
+            // ڳռ¹ݿ⣨0-1 BFS
             System.out.println("ģʽݿ: " + group);
             long startTime = System.nanoTime();
 
-            Map<String, Integer> db = buildPatternDatabase(goal, group);
-            saveDatabaseToCache(db, cacheFile);
+            PatternDatabaseBuilder builder = new PatternDatabaseBuilder(size, tiles, goal);
+            byte[] db = builder.build();
+            int states = countStates(db);
+            byte[] packed = tableSize >= PACK_THRESHOLD ? builder.compress(db) : null;
+            if (packed != null) {
+                db = packed;
+            }
 
             long endTime = System.nanoTime();
             System.out.printf("ݿ⹹: %d states, ʱ: %.3f\n",
-                    db.size(), (endTime - startTime) / 1e9);
+                    states, (endTime - startTime) / 1e9);
 
-            return db;
-        }
-
-        /**
-         * ģʽݿ⣨BFS㷨
-         * ؼֻģʽڴשƶש
-         */
-        private Map<String, Integer> buildPatternDatabase(PuzzleBoard goal, List<Integer> group) {
-            Map<String, Integer> database = new HashMap<>();
-            Queue<Node> queue = new ArrayDeque<>();
-            Set<String> visited = new HashSet<>();
-
-            // Ŀ״̬ʼBFS
-            String goalCode = encodePatternState(goal, group);
-            database.put(goalCode, 0);
-            queue.offer(new Node(goal, 0));
-            visited.add(goalCode);
-
-            int statesExplored = 0;
-
-            while (!queue.isEmpty()) {
-                Node currentNode = queue.poll();
-                PuzzleBoard current = currentNode.board;
-                int currentCost = currentNode.cost;
-
-                statesExplored++;
-
-                // չпܵƶ
-                for (Object actionObj : current.actions()) {
-                    Action action = (Action) actionObj;
-                    PuzzleBoard next = (PuzzleBoard) current.next(action);
-                    if (next == null) continue;
-
-                    String nextCode = encodePatternState(next, group);
-
-                    if (!visited.contains(nextCode)) {
-                        visited.add(nextCode);
-                        int nextCost = currentCost + 1;
-                        database.put(nextCode, nextCost);
-                        queue.offer(new Node(next, nextCost));
-                    }
-                }
+            // дӳļõ漴Ի
+            try {
+                PatternDatabaseFile.write(cacheFile, size, tiles, goal, packed != null ? 4 : 8, tableSize, states, db);
+                mapped = PatternDatabaseFile.open(cacheFile, size, tiles, goal, tableSize);
+            } catch (IOException e) {
+                System.out.println("汣ʧ: " + e.getMessage());
             }
-
-            System.out.printf("  ̽״̬: %d, ݿС: %d%n", statesExplored, database.size());
-            return database;
+            ByteBuffer data = mapped != null ? mapped.data : ByteBuffer.wrap(db);
+            return new PatternTable(size, tiles, goal, data, packed != null, states);
         }
 
-        /* ===================== ״̬㷨 ===================== */
-
-        /**
-         * ģʽ״̬ı뷽
-         * ؼֻģʽڴשλãλ'*'ʾ
-         */
-        private String encodePatternState(PuzzleBoard board, List<Integer> group) {
-            int[][] grid = board.getGrid();
-            StringBuilder sb = new StringBuilder();
-
-            // ̣ģʽڴשʾ֣ʾ'*'
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    int value = grid[i][j];
-                    if (value == 0) {
-                        sb.append('0'); // ո⴦
-                    } else if (group.contains(value)) {
-                        sb.append(value).append(','); // ģʽڴש
-                    } else {
-                        sb.append('*').append(',');   // ĵĴש
-                    }
-                }
+        private static int countStates(byte[] database) {
+            int count = 0;
+            for (byte cost : database) {
+                if ((cost & 0xFF) != PatternDatabaseBuilder.UNSET) count++;
             }
-
-            return sb.toString();
+            return count;
         }
 
         /* ===================== ߷ ===================== */
@@ -244,95 +470,52 @@ public class DisjointPatternDatabasePredictor implements Predictor {
 
             return new PuzzleBoard(goalGrid);
         }
+    }
 
-        /**
-         * پ루ʽ
-         */
-        private int calculateGroupManhattan(PuzzleBoard board, List<Integer> group) {
-            int[][] grid = board.getGrid();
-            int heuristic = 0;
-
-            // Ŀλӳ
-            Map<Integer, int[]> targetPositions = createTargetPositions(group);
+    /* ===================== Ĵ۱ ===================== */
 
-            // ֵֻپ
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    int value = grid[i][j];
-                    if (group.contains(value) && value != 0) {
-                        int[] targetPos = targetPositions.get(value);
-                        if (targetPos != null) {
-                            heuristic += Math.abs(i - targetPos[0]) + Math.abs(j - targetPos[1]);
-                        }
-                    }
+    /**
+     * һĴ۱ģʽƬλõ
+     * δѹʱÿģʽһֽڣֱӴۣ
+     * ѹʱÿģʽ 4 λ ( - پ) / 2ʱټӻپ롣
+     */
+    private static final class PatternTable {
+        private final int cells;
+        private final int[] tiles;
+        // ۱ͨӳݿļֻ
+        private final ByteBuffer data;
+        private final boolean packed;
+        // manhattan[i * cells + cell] i ģʽƬ cell ʱĿλõپ
+        private final int[] manhattan;
+        final int states;
+
+        PatternTable(int size, int[] tiles, PuzzleBoard goal, ByteBuffer data, boolean packed, int states) {
+            this.cells = size * size;
+            this.tiles = tiles;
+            this.data = data;
+            this.packed = packed;
+            this.states = states;
+            this.manhattan = new int[tiles.length * cells];
+            for (int i = 0; i < tiles.length; i++) {
+                int target = goal.indexOf(tiles[i]);
+                for (int cell = 0; cell < cells; cell++) {
+                    manhattan[i * cells + cell] = Math.abs(cell / size - target / size)
+                            + Math.abs(cell % size - target % size);
                 }
             }
-
-            return heuristic;
         }
 
-        /**
-         * ڴשĿλӳ
-         */
-        private Map<Integer, int[]> createTargetPositions(List<Integer> group) {
-            Map<Integer, int[]> positions = new HashMap<>();
-            PuzzleBoard goal = createGoalBoard(size);
-            int[][] goalGrid = goal.getGrid();
-
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    int value = goalGrid[i][j];
-                    if (group.contains(value) && value != 0) {
-                        positions.put(value, new int[]{i, j});
-                    }
-                }
+        int cost(long where) {
+            int rank = PatternDatabaseBuilder.rank(where, tiles, cells);
+            if (!packed) {
+                return data.get(rank) & 0xFF;
             }
-
-            return positions;
-        }
-
-        /* =====================  ===================== */
-
-        private Map<String, Integer> loadDatabaseFromCache(String filename) {
-            try {
-                Path path = Paths.get(filename);
-                if (!Files.exists(path)) return null;
-
-                try (ObjectInputStream ois = new ObjectInputStream(
-                        Files.newInputStream(path))) {
-                    return (Map<String, Integer>) ois.readObject();
-                }
-            } catch (Exception e) {
-                System.out.println("ʧ: " + e.getMessage());
-                return null;
+            int distance = 0;
+            for (int i = 0; i < tiles.length; i++) {
+                distance += manhattan[i * cells + ((int) (where >>> (tiles[i] * 4)) & 0xF)];
             }
-        }
-
-        private void saveDatabaseToCache(Map<String, Integer> database, String filename) {
-            try {
-                try (ObjectOutputStream oos = new ObjectOutputStream(
-                        Files.newOutputStream(Paths.get(filename)))) {
-                    oos.writeObject(database);
-                }
-            } catch (Exception e) {
-                System.out.println("汣ʧ: " + e.getMessage());
-            }
-        }
-    }
-
-    /* =====================  ===================== */
-
-    /**
-     * BFSڵ࣬ģʽݿ⹹
-     */
-    private static class Node {
-        final PuzzleBoard board;
-        final int cost;
-
-        Node(PuzzleBoard board, int cost) {
-            this.board = board;
-            this.cost = cost;
+            return distance + (((data.get(rank >>> 1) >>> ((rank & 1) << 2)) & 0xF) << 1);
         }
     }
 
-}
\ No newline at end of file
+}
@@ -1,8 +1,10 @@
 package stud.g01.solver.algorithm.heuristic;
 
+import core.problem.Action;
 import core.problem.State;
-import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
 import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.problem.pathfinding.Move;
 
 /*
  * 㺺ֵ
@@ -12,25 +14,38 @@ import stud.g01.problem.npuzzle.PuzzleBoard;
  * @return λ(Ӧֻ)
  */
 
-public class HammingDistancePredictor implements Predictor {
+public class HammingDistancePredictor implements IncrementalPredictor {
 
     @Override
     public int heuristics(State state, State goal) {
         PuzzleBoard s = (PuzzleBoard) state;
         PuzzleBoard g = (PuzzleBoard) goal;
-        int size = s.getSize();
-        int[][] sg = s.getGrid();
-        int[][] gg = g.getGrid();
+        int cells = s.getSize() * s.getSize();
 
         int misplaced = 0;
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                // ׼룺Ƚλãλ
-                if (sg[i][j] != gg[i][j]) {
-                    misplaced++;
-                }
+        for (int i = 0; i < cells; i++) {
+            // ׼룺Ƚλãλ
+            if (s.tileAt(i) != g.tileAt(i)) {
+                misplaced++;
             }
         }
         return misplaced;
     }
+
+    /**
+     * 㣺һƶֻհ׸һڸӣֻȽƶǰĴλ
+     */
+    @Override
+    public int heuristics(State parent, int parentHeuristics, Action action, State goal) {
+        PuzzleBoard s = (PuzzleBoard) parent;
+        PuzzleBoard g = (PuzzleBoard) goal;
+        int blank = s.getBlankIndex();
+        int from = s.neighbour(((Move) action).getDirection());
+        int tile = s.tileAt(from);
+
+        // ƶǰblank  0from  tileƶ߻
+        int before = (g.tileAt(blank) != 0 ? 1 : 0) + (g.tileAt(from) != tile ? 1 : 0);
+        int after = (g.tileAt(blank) != tile ? 1 : 0) + (g.tileAt(from) != 0 ? 1 : 0);
+        return parentHeuristics - before + after;
+    }
 }
\ No newline at end of file
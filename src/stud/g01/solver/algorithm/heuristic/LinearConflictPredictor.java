@@ -0,0 +1,210 @@
+package stud.g01.solver.algorithm.heuristic;
+
+import core.problem.Action;
+import core.problem.State;
+import core.problem.UnsupportedProblemException;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.problem.pathfinding.Move;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * پ + Գͻ
+ * ͬһ () ĿλҲһ ()˴˵ǰ˳Ŀ෴ʱ
+ * һƳһ () ƻپٶ 2 
+ * һ () ĶΪ 2  (ڸеĻ - Ŀλõг)ҪƿĻ
+ *
+ * һ () ĳͻֻȡиϵĻǷڸ () Լڸ () еĿλã
+ * ÿӱΪ 0 ()  Ŀλ + 1 (n + 1) Ƶõһ () ±꣬
+ * ͻ LINE_CONFLICTS[n][±] Ŀ״̬޹أģֻһΡ
+ * һƶʱƶı们иȺ˳ֻӰƳУ
+ * ƶֻͬӰУֵֻ¼ߡ
+ */
+public class LinearConflictPredictor implements IncrementalPredictor {
+
+    // ͻ (n + 1)^n ֻΪ 6x6 ̹
+    private static final int MAX_LINE = 6;
+    // LINE_CONFLICTS[n][index]ģΪ n ϣΪ index һ () Ķ
+    private static final int[][] LINE_CONFLICTS = new int[MAX_LINE + 1][];
+
+    static {
+        for (int n = 1; n <= MAX_LINE; n++) {
+            LINE_CONFLICTS[n] = lineConflicts(n);
+        }
+    }
+
+    // 棬ڴ洢ͬĿ״̬Ĺֵʱᱻ߳ͬʱȡ
+    private final Map<State, Tables> goalCache = new ConcurrentHashMap<>();
+
+    @Override
+    public int heuristics(State state, State goal) {
+        Tables tables = getTables(goal);
+        PuzzleBoard board = (PuzzleBoard) state;
+        int n = board.getSize();
+        int cells = n * n;
+        int[] conflicts = LINE_CONFLICTS[n];
+
+        int total = 0;
+        for (int row = 0; row < n; row++) {
+            int index = 0;
+            for (int cell = row * n; cell < row * n + n; cell++) {
+                int offset = board.tileAt(cell) * cells + cell;
+                total += tables.distances[offset];
+                index += tables.rowCodes[offset];
+            }
+            total += conflicts[index];
+        }
+        for (int col = 0; col < n; col++) {
+            total += conflicts[columnIndex(board, tables, col)];
+        }
+        return total;
+    }
+
+    /**
+     * 㣺پֻбƶһ仯
+     * ԳͻֻбƶƳ (ƶΪУƶΪ) 仯
+     * ߵ±ɾ±ȥϸûıõ
+     */
+    @Override
+    public int heuristics(State parent, int parentHeuristics, Action action, State goal) {
+        Tables tables = getTables(goal);
+        PuzzleBoard board = (PuzzleBoard) parent;
+        int n = board.getSize();
+        int cells = n * n;
+        int[] conflicts = LINE_CONFLICTS[n];
+        int blank = board.getBlankIndex();
+        int from = board.neighbour(((Move) action).getDirection());
+        int tile = board.tileAt(from);
+        int before = tile * cells + from;
+        int after = tile * cells + blank;
+
+        int h = parentHeuristics - tables.distances[before] + tables.distances[after];
+        int leftIndex;
+        int enteredIndex;
+        int[] codes;
+        if (from / n == blank / n) {
+            leftIndex = columnIndex(board, tables, from % n);
+            enteredIndex = columnIndex(board, tables, blank % n);
+            codes = tables.columnCodes;
+        } else {
+            leftIndex = rowIndex(board, tables, from / n);
+            enteredIndex = rowIndex(board, tables, blank / n);
+            codes = tables.rowCodes;
+        }
+        return h - conflicts[leftIndex] - conflicts[enteredIndex]
+                + conflicts[leftIndex - codes[before]] + conflicts[enteredIndex + codes[after]];
+    }
+
+    private static int rowIndex(PuzzleBoard board, Tables tables, int row) {
+        int n = board.getSize();
+        int cells = n * n;
+        int index = 0;
+        for (int cell = row * n; cell < row * n + n; cell++) {
+            index += tables.rowCodes[board.tileAt(cell) * cells + cell];
+        }
+        return index;
+    }
+
+    private static int columnIndex(PuzzleBoard board, Tables tables, int col) {
+        int n = board.getSize();
+        int cells = n * n;
+        int index = 0;
+        for (int cell = col; cell < cells; cell += n) {
+            index += tables.columnCodes[board.tileAt(cell) * cells + cell];
+        }
+        return index;
+    }
+
+    /**
+     * ȡ򴴽ָĿ״̬Ĺֵ
+     */
+    private Tables getTables(State goal) {
+        Tables tables = goalCache.get(goal);
+        if (tables == null) {
+            tables = new Tables((PuzzleBoard) goal);
+            goalCache.put(goal, tables);
+        }
+        return tables;
+    }
+
+    /**
+     * ģΪ n ĳͻ±ĵ i  (n + 1) λϵ i ӵı
+     */
+    private static int[] lineConflicts(int n) {
+        int radix = n + 1;
+        int size = 1;
+        for (int i = 0; i < n; i++) {
+            size *= radix;
+        }
+        int[] conflicts = new int[size];
+        int[] targets = new int[n];
+        int[] longest = new int[n];
+        for (int index = 0; index < size; index++) {
+            // ȡߵĻĿλ
+            int count = 0;
+            for (int i = 0, rest = index; i < n; i++, rest /= radix) {
+                if (rest % radix != 0) {
+                    targets[count++] = rest % radix - 1;
+                }
+            }
+            // У໬鶼Ҫƿ
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                longest[i] = 1;
+                for (int j = 0; j < i; j++) {
+                    if (targets[j] < targets[i]) {
+                        longest[i] = Math.max(longest[i], longest[j] + 1);
+                    }
+                }
+                kept = Math.max(kept, longest[i]);
+            }
+            conflicts[index] = 2 * (count - kept);
+        }
+        return conflicts;
+    }
+
+    /**
+     * һĿ״̬Ĺֵ [tile * cells + cell] ţհ׸ (0) һȫΪ 0
+     *  tile λڸ cell ʱĿλõپ룬ԼС±еı
+     */
+    private static final class Tables {
+        final int[] distances;
+        final int[] rowCodes;
+        final int[] columnCodes;
+
+        Tables(PuzzleBoard goal) {
+            int n = goal.getSize();
+            if (n > MAX_LINE) {
+                throw new UnsupportedProblemException("Գͻֲ֧ " + MAX_LINE + "x" + MAX_LINE + " : " + n);
+            }
+            int cells = n * n;
+            distances = new int[cells * cells];
+            rowCodes = new int[cells * cells];
+            columnCodes = new int[cells * cells];
+            int[] weights = new int[n];
+            weights[0] = 1;
+            for (int i = 1; i < n; i++) {
+                weights[i] = weights[i - 1] * (n + 1);
+            }
+            for (int target = 0; target < cells; target++) {
+                int tile = goal.tileAt(target);
+                if (tile == 0) continue;
+                int goalRow = target / n;
+                int goalCol = target % n;
+                for (int cell = 0; cell < cells; cell++) {
+                    int row = cell / n;
+                    int col = cell % n;
+                    distances[tile * cells + cell] = Math.abs(row - goalRow) + Math.abs(col - goalCol);
+                    if (row == goalRow) {
+                        rowCodes[tile * cells + cell] = (goalCol + 1) * weights[col];
+                    }
+                    if (col == goalCol) {
+                        columnCodes[tile * cells + cell] = (goalRow + 1) * weights[row];
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,91 +1,101 @@
 package stud.g01.solver.algorithm.heuristic;
 
+import core.problem.Action;
 import core.problem.State;
-import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
 import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.problem.pathfinding.Move;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 
-public class ManhattanDistancePredictor implements Predictor {
+public class ManhattanDistancePredictor implements IncrementalPredictor {
 
-    // 棬ڴ洢ͬĿ״̬ (goal state) Ļλòұ
-    private final Map<State, Map<Integer, int[]>> goalCache;
+    // 棬ڴ洢ͬĿ״̬ (goal state) ľʱᱻ߳ͬʱȡ
+    private final Map<State, int[]> goalCache;
 
     /**
      * ʵ
      */
     public ManhattanDistancePredictor() {
-        this.goalCache = new HashMap<>();
+        this.goalCache = new ConcurrentHashMap<>();
     }
 
     /**
-     * ȡ򴴽ָĿ״̬Ļλòұ
-     * Ŀ״̬Ĳұѱӻֱӷأظ㡣
+     * ȡ򴴽ָĿ״̬ľ
+     *  [tile * cells + cell] Ż tile λڸ cell ʱĿλõپ룬
+     * հ׸ (0) һȫΪ 0Ŀ״̬ľѱӻֱӷء
      * @param goal Ŀ״̬
-     * @return л鼰ĿλõĲұ
+     * @return Ŀ״̬ľ
      */
-    private Map<Integer, int[]> getGoalPositions(State goal) {
-        // 黺ǷѴڸĿ״̬Ĳұ
-        if (goalCache.containsKey(goal)) {
-            return goalCache.get(goal);
+    private int[] getDistances(State goal) {
+        // 黺ǷѴڸĿ״̬ľ
+        int[] distances = goalCache.get(goal);
+        if (distances != null) {
+            return distances;
         }
 
-        // ûУΪĿ״̬һµĲұ
-        Map<Integer, int[]> positions = new HashMap<>();
         PuzzleBoard goalBoard = (PuzzleBoard) goal;
         int size = goalBoard.getSize();
-        int[][] goalGrid = goalBoard.getGrid();
-
-        // Ŀ̣¼ÿ ( 0) 
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                int value = goalGrid[i][j];
-                if (value != 0) {
-                    positions.put(value, new int[]{i, j});
-                }
+        int cells = size * size;
+        distances = new int[cells * cells];
+
+        // Ŀ̣ÿ ( 0) ÿϵپ
+        for (int target = 0; target < cells; target++) {
+            int tile = goalBoard.tileAt(target);
+            if (tile == 0) continue;
+            for (int cell = 0; cell < cells; cell++) {
+                distances[tile * cells + cell] = Math.abs(cell / size - target / size)
+                        + Math.abs(cell % size - target % size);
             }
         }
 
-        // ´Ĳұ뻺棬Աʹ
-        goalCache.put(goal, positions);
-        return positions;
+        // ´ľ뻺棬Աʹ
+        goalCache.put(goal, distances);
+        return distances;
     }
 
     /**
      * ״̬Ŀ״̬پܺ
      * @param state Ҫĵǰ״̬
      * @param goal  Ŀ״̬
-     * @return پܺ
+     * @return лپܺ
      */
     @Override
     public int heuristics(State state, State goal) {
-        // ȡĿλòұ (˷Զ)
-        Map<Integer, int[]> goalPositions = getGoalPositions(goal);
+        int[] distances = getDistances(goal);
 
         PuzzleBoard currentBoard = (PuzzleBoard) state;
-        int[][] currentGrid = currentBoard.getGrid();
-        int size = currentBoard.getSize();
+        int cells = currentBoard.getSize() * currentBoard.getSize();
         int totalDistance = 0;
 
-        // ǰ̣ۼÿپ
-        for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                int value = currentGrid[i][j];
-                // հ׸ (0) 
-                if (value != 0) {
-                    int[] targetPos = goalPositions.get(value);
-                    // ׳Լ飬ֹ⵼³
-                    if (targetPos == null) continue;
-
-                    int targetRow = targetPos[0];
-                    int targetCol = targetPos[1];
-                    // ۼӵǰپ
-                    totalDistance += Math.abs(i - targetRow) + Math.abs(j - targetCol);
-                }
-            }
+        // ǰ̣ۼÿپ (հ׸һȫΪ 0)
+        for (int cell = 0; cell < cells; cell++) {
+            totalDistance += distances[currentBoard.tileAt(cell) * cells + cell];
         }
         return totalDistance;
     }
-}
\ No newline at end of file
+
+    /**
+     * 㣺һƶֻһڸƵհ׸
+     * ״̬پڸ״̬ľϸûı仯
+     * @param parent           ״̬
+     * @param parentHeuristics ״̬پ
+     * @param action           ״̬ϲȡƶ
+     * @param goal             Ŀ״̬
+     * @return ״̬پܺ
+     */
+    @Override
+    public int heuristics(State parent, int parentHeuristics, Action action, State goal) {
+        int[] distances = getDistances(goal);
+
+        PuzzleBoard board = (PuzzleBoard) parent;
+        int cells = board.getSize() * board.getSize();
+        int blank = board.getBlankIndex();
+        int from = board.neighbour(((Move) action).getDirection());
+        int tile = board.tileAt(from);
+
+        return parentHeuristics - distances[tile * cells + from] + distances[tile * cells + blank];
+    }
+}
@@ -0,0 +1,426 @@
+package stud.g01.solver.algorithm.heuristic;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ģʽݿĹ
+ * ֱڳռ (ģʽƬλ + հ׸λ) κ PuzzleBoard
+ * հ׸ģʽƬƴ (0)ģʽƬƴ 1һ 0-1 BFS
+ * ֻģʽƬƶʹûཻĸĴۿֱӶȻɲɡ
+ *
+ * дհ׸ĳ״̬ÿֻռ 2 λɡǰ㡢һ㡢δ
+ * ǰһı㽻档ɨ裺ȡǰ״̬ؿհ׸ڵͨ 0 ɢ
+ * ΪɣٰģʽƬõ״̬Ϊһ㡣
+ * յıȥհ׸񣬶ÿģʽȡпհ׸λеСȣÿģʽһֽڡ
+ *
+ * ÿһ ForkJoinPool аģʽ䲢ɨ裬֮ͬ
+ * һģʽ״ֻ̬ɴģʽдһ״̬ʱԱ CAS
+ * ж -Djava.util.concurrent.ForkJoinPool.common.parallelism ơ
+ */
+final class PatternDatabaseBuilder {
+
+    // ձδ۵ı
+    static final int UNSET = 0xFF;
+    // 2 λǣ0 Ϊɣ3 Ϊδǰһ 1  2 ֮佻
+    private static final int UNSEEN = 3;
+    private static final long LOW_BITS = 0x5555555555555555L;
+    // ÿҶģʽ
+    private static final int GRAIN = 1 << 14;
+    // հ׸״̬ﵽֵʱ㱨
+    private static final long REPORT_THRESHOLD = 1L << 26;
+
+    private static final VarHandle MARKS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int cells;
+    private final int[] tiles;
+    // ģʽƬĿ״̬еλ
+    private final int[] goalPositions;
+    private final int goalBlank;
+    // հ׸ģʽƬ֮ܵλ
+    private final int blankDigits;
+    private final int size;
+    private final int allCells;
+    private final int firstColumn;
+    private final int lastColumn;
+    // neighbours[cell] cell ڵĸӵλ
+    private final int[] neighbours;
+
+    // еı۱
+    private long[] marks;
+    private byte[] table;
+    // ۵ģʽڱ
+    private final LongAdder resolved = new LongAdder();
+
+    /**
+     * @param size  ̱߳
+     * @param tiles ģʽеƬ (հ׸)
+     * @param goal  Ŀ״̬
+     */
+    PatternDatabaseBuilder(int size, int[] tiles, PuzzleBoard goal) {
+        this.cells = size * size;
+        this.tiles = tiles.clone();
+        this.goalPositions = new int[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            goalPositions[i] = goal.indexOf(tiles[i]);
+        }
+        this.goalBlank = goal.getBlankIndex();
+        this.blankDigits = cells - tiles.length;
+        this.size = size;
+        this.allCells = (1 << cells) - 1;
+        int firstColumn = 0;
+        for (int row = 0; row < size; row++) {
+            firstColumn |= 1 << (row * size);
+        }
+        this.firstColumn = firstColumn;
+        this.lastColumn = firstColumn << (size - 1);
+        this.neighbours = new int[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            neighbours[cell] = spread(1 << cell);
+        }
+    }
+
+    /**
+     * ģʽݿ
+     * @return ģʽƬλõĴ۱Ϊ tableSize(cells, k)
+     */
+    byte[] build() {
+        int patterns = tableSize(cells, tiles.length);
+        long states = (long) patterns * blankDigits;
+        boolean report = states >= REPORT_THRESHOLD;
+        marks = new long[(int) ((states + 31) >>> 5)];
+        Arrays.fill(marks, -1L); // ȫΪ UNSEEN
+        table = new byte[patterns];
+        Arrays.fill(table, (byte) UNSET);
+        resolved.reset();
+
+        int goalRank = rank(goalPositions, cells);
+        int goalOccupied = occupied(goalPositions);
+        long goalIndex = (long) goalRank * blankDigits + blankDigit(goalBlank, goalOccupied);
+        marks[(int) (goalIndex >>> 5)] &= ~((long) (UNSEEN ^ label(0)) << ((goalIndex & 31) << 1));
+
+        long startTime = System.nanoTime();
+        for (int depth = 0; ; depth++) {
+            long generated = ForkJoinPool.commonPool().invoke(new LevelTask(0, patterns, depth));
+            if (report) {
+                long done = resolved.sum();
+                System.out.printf("  %s  %d:  %d ״̬,  %d/%d ģʽ (%.1f%%), ʱ %.1f%n",
+                        Arrays.toString(tiles), depth, generated, done, patterns,
+                        100.0 * done / patterns, (System.nanoTime() - startTime) / 1e9);
+            }
+            if (generated == 0) {
+                byte[] result = table;
+                marks = null;
+                table = null;
+                return result;
+            }
+        }
+    }
+
+    /**
+     * һд [from, to) ڸģʽ񣬷ɵһ״̬
+     */
+    private final class LevelTask extends RecursiveTask<Long> {
+        private final int from;
+        private final int to;
+        private final int depth;
+
+        LevelTask(int from, int to, int depth) {
+            this.from = from;
+            this.to = to;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from > GRAIN) {
+                int middle = (from + to) >>> 1;
+                LevelTask left = new LevelTask(from, middle, depth);
+                left.fork();
+                long right = new LevelTask(middle, to, depth).compute();
+                return right + left.join();
+            }
+
+            int[] positions = new int[tiles.length];
+            int[] digits = new int[tiles.length];
+            long currentPattern = label(depth) * LOW_BITS;
+            long generated = 0;
+            int lastPattern = -1;
+            int firstWord = (int) (((long) from * blankDigits) >>> 5);
+            int lastWord = (int) (((long) to * blankDigits - 1) >>> 5);
+
+            // ɨ裬һαȽ 32 ״̬ҳǰ״̬
+            for (int word = firstWord; word <= lastWord; word++) {
+                long x = marks[word] ^ currentPattern;
+                long hits = ~(x | (x >>> 1)) & LOW_BITS;
+                while (hits != 0) {
+                    long index = ((long) word << 5) + (Long.numberOfTrailingZeros(hits) >>> 1);
+                    hits &= hits - 1;
+                    int pattern = (int) (index / blankDigits);
+                    // ͬһģʽпհ׸λ expand һβãֻڵģʽ
+                    if (pattern == lastPattern || pattern < from || pattern >= to) continue;
+                    lastPattern = pattern;
+                    generated += expand(pattern, depth, positions, digits);
+                }
+            }
+            return generated;
+        }
+    }
+
+    /**
+     * Ѵ۱ѹΪÿģʽ 4 λ
+     * ģʽƬÿƶһپǡñ仯 1Դ۲Сپżͬ
+     * ֻ ( - پ) / 2
+     * @param table build() õĴ۱
+     * @return ѹıģʽһֽ (żڵ 4 λ)ֵ 4 λʱ null
+     */
+    byte[] compress(byte[] table) {
+        byte[] packed = new byte[(table.length + 1) >>> 1];
+        boolean fits = ForkJoinPool.commonPool().invoke(new CompressTask(table, packed, 0, table.length));
+        return fits ? packed : null;
+    }
+
+    /**
+     * ѹ [from, to) ڸģʽżʼͬ񲻻дͬһֽ
+     */
+    private final class CompressTask extends RecursiveTask<Boolean> {
+        private final byte[] table;
+        private final byte[] packed;
+        private final int from;
+        private final int to;
+
+        CompressTask(byte[] table, byte[] packed, int from, int to) {
+            this.table = table;
+            this.packed = packed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (to - from > GRAIN * 16) {
+                int middle = ((from + to) >>> 1) & ~1;
+                CompressTask left = new CompressTask(table, packed, from, middle);
+                left.fork();
+                boolean right = new CompressTask(table, packed, middle, to).compute();
+                return left.join() && right;
+            }
+
+            int[] positions = new int[tiles.length];
+            int[] digits = new int[tiles.length];
+            for (int rank = from; rank < to; rank++) {
+                unrank(rank, positions, digits);
+                int distance = 0;
+                for (int i = 0; i < positions.length; i++) {
+                    distance += Math.abs(positions[i] / size - goalPositions[i] / size)
+                            + Math.abs(positions[i] % size - goalPositions[i] % size);
+                }
+                int delta = ((table[rank] & 0xFF) - distance) >> 1;
+                if (delta > 15) {
+                    return false;
+                }
+                packed[rank >>> 1] |= (byte) (delta << ((rank & 1) << 2));
+            }
+            return true;
+        }
+    }
+
+    /**
+     * չһģʽڵǰȵ״̬
+     * @param positions 飬ģʽƬλ
+     * @param digits    飬ĸλ
+     * @return ɵһ״̬
+     */
+    private long expand(int pattern, int depth, int[] positions, int[] digits) {
+        int current = label(depth);
+        int next = label(depth + 1);
+        unrank(pattern, positions, digits);
+        int occupied = occupied(positions);
+        int empty = allCells & ~occupied;
+        long base = (long) pattern * blankDigits;
+        long generated = 0;
+
+        // 㴦һδȾǸģʽпհ׸λеС
+        if ((table[pattern] & 0xFF) == UNSET) {
+            table[pattern] = (byte) depth;
+            resolved.increment();
+        }
+
+        int candidates = empty;
+        while (candidates != 0) {
+            int start = Integer.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if (get(base + blankDigit(start, occupied)) != current) continue;
+
+            // հ׸ڷģʽӼƶƴۣͨ򶼴ڵǰ
+            int region = 1 << start;
+            int grown;
+            while ((grown = (region | spread(region)) & empty) != region) {
+                region = grown;
+            }
+            candidates &= ~region;
+            complete(base, region, occupied);
+
+            // ڵģʽƬеĿհ׸񣬴Ϊ 1
+            for (int tile = 0; tile < positions.length; tile++) {
+                int from = positions[tile];
+                for (int targets = neighbours[from] & region; targets != 0; targets &= targets - 1) {
+                    int blank = Integer.numberOfTrailingZeros(targets);
+                    positions[tile] = blank;
+                    int nextOccupied = occupied & ~(1 << from) | (1 << blank);
+                    long index = (long) rank(positions, cells) * blankDigits + blankDigit(from, nextOccupied);
+                    if (discover(index, next)) {
+                        generated++;
+                    }
+                }
+                positions[tile] = from;
+            }
+        }
+        return generated;
+    }
+
+    /**
+     * һģʽпհ׸λ region ڵ״̬Ϊ
+     * ͬһģʽ״̬ڱģֿ֣ãֻԭӵģʽλ
+     */
+    private void complete(long base, int region, int occupied) {
+        long mask = 0;
+        for (int cells = region; cells != 0; cells &= cells - 1) {
+            mask |= 3L << (blankDigit(Integer.numberOfTrailingZeros(cells), occupied) << 1);
+        }
+        int word = (int) (base >>> 5);
+        int shift = (int) (base & 31) << 1;
+        MARKS.getAndBitwiseAnd(marks, word, ~(mask << shift));
+        if (shift != 0 && (mask >>> (64 - shift)) != 0) {
+            MARKS.getAndBitwiseAnd(marks, word + 1, ~(mask >>> (64 - shift)));
+        }
+    }
+
+    /**
+     * δ״̬Ϊһ
+     * @return ǷɱεðΪһ
+     */
+    private boolean discover(long index, int next) {
+        int word = (int) (index >>> 5);
+        int shift = (int) (index & 31) << 1;
+        long clear = (long) (UNSEEN ^ next) << shift;
+        long value = marks[word];
+        while (((value >>> shift) & 3) == UNSEEN) {
+            long witness = (long) MARKS.compareAndExchange(marks, word, value, value & ~clear);
+            if (witness == value) {
+                return true;
+            }
+            value = witness;
+        }
+        return false;
+    }
+
+    //  mask һڵĸ
+    private int spread(int mask) {
+        return (mask << size | mask >>> size | (mask << 1) & ~firstColumn | (mask >>> 1) & ~lastColumn) & allCells;
+    }
+
+    /**
+     * 㣺ԭΪģʽƬλ
+     */
+    private void unrank(int rank, int[] positions, int[] digits) {
+        for (int i = tiles.length - 1; i >= 0; i--) {
+            int radix = cells - i;
+            digits[i] = rank % radix;
+            rank /= radix;
+        }
+        int free = allCells;
+        for (int i = 0; i < tiles.length; i++) {
+            //  digits[i] δռõĸ
+            int remaining = free;
+            for (int skip = digits[i]; skip > 0; skip--) {
+                remaining &= remaining - 1;
+            }
+            int cell = Integer.numberOfTrailingZeros(remaining);
+            positions[i] = cell;
+            free &= ~(1 << cell);
+        }
+    }
+
+    // Ϊ depth һɨڼʹõı
+    private static int label(int depth) {
+        return 1 + (depth & 1);
+    }
+
+    // հ׸ blank ʱ±꣺blank ֮ǰδģʽƬռõĸ
+    private static int blankDigit(int blank, int occupied) {
+        return blank - Integer.bitCount(occupied & ((1 << blank) - 1));
+    }
+
+    private static int occupied(int[] positions) {
+        int occupied = 0;
+        for (int position : positions) {
+            occupied |= 1 << position;
+        }
+        return occupied;
+    }
+
+    private int get(long index) {
+        return (int) (marks[(int) (index >>> 5)] >>> ((index & 31) << 1)) & 3;
+    }
+
+    /* =====================  ===================== */
+
+    /**
+     * ģʽ״̬
+     * ģʽƬڵĸӿ cells ȡУ
+     *  i ƬλüȥǰҸСռΪ (cells - i) Ϊһλ֡
+     * ǡ [0, cells!/(cells-k)!) ڡ
+     * @param positions ģʽƬڵĸ
+     * @param cells     
+     * @return 
+     */
+    static int rank(int[] positions, int cells) {
+        int rank = 0;
+        int used = 0;
+        for (int i = 0; i < positions.length; i++) {
+            int position = positions[i];
+            rank = rank * (cells - i) + (position - Integer.bitCount(used & ((1 << position) - 1)));
+            used |= 1 << position;
+        }
+        return rank;
+    }
+
+    /**
+     * ͬ rank(int[], int)ƬλȡԴλñκζ
+     * @param where Ƭλã PuzzleBoard.positions()
+     * @param tiles ģʽеƬ
+     * @param cells 
+     * @return 
+     */
+    static int rank(long where, int[] tiles, int cells) {
+        int rank = 0;
+        int used = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            int position = (int) (where >>> (tiles[i] * 4)) & 0xF;
+            rank = rank * (cells - i) + (position - Integer.bitCount(used & ((1 << position) - 1)));
+            used |= 1 << position;
+        }
+        return rank;
+    }
+
+    /**
+     * k Ƭ cells ϵ cells * (cells-1) * ... * (cells-k+1)
+     */
+    static int tableSize(int cells, int k) {
+        long tableSize = 1;
+        for (int i = 0; i < k; i++) {
+            tableSize *= cells - i;
+        }
+        if (tableSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ģʽ: " + k + " Ƭ, " + cells + " ");
+        }
+        return (int) tableSize;
+    }
+}
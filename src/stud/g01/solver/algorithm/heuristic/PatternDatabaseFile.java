@@ -0,0 +1,178 @@
+package stud.g01.solver.algorithm.heuristic;
+
+import stud.g01.problem.npuzzle.PuzzleBoard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * ģʽݿĴļʽ
+ * ļļͷʹ۱ɣ۱ֻʽڴӳ䣬ֱӶӳĻ
+ * ʱذűУͬһ̨ϵĶ̹ͬһҳ档
+ *
+ * ļͷ ()
+ *   int    ħ "NPDB"
+ *   short  汾
+ *   byte   ̱߳ size
+ *   byte   λ (4  8)
+ *   byte   ģʽƬ k k ֽΪģʽƬ
+ *   byte[] Ŀ겼֣ size * size ֽڣ˳Ƭ0 Ϊհ׸
+ *   int     (ģʽ)
+ *   int    ɴģʽ
+ *   int    ۱ֽ
+ *   long   ۱ CRC32 У
+ *   int    ۱ļеƫƣ 8 ֽڶ
+ */
+final class PatternDatabaseFile {
+
+    private static final int MAGIC = 0x4E504442; // "NPDB"
+    private static final short VERSION = 1;
+
+    // ʱǷУű CRC32ļĬֻ -Dnpuzzle.pdb.verify=true ʱУ
+    private static final boolean VERIFY = Boolean.getBoolean("npuzzle.pdb.verify");
+
+    // ӳĴ۱ֻ
+    final ByteBuffer data;
+    // λ4 ʾģʽһֽ
+    final int entryBits;
+    // ɴģʽ
+    final int states;
+
+    private PatternDatabaseFile(ByteBuffer data, int entryBits, int states) {
+        this.data = data;
+        this.entryBits = entryBits;
+        this.states = states;
+    }
+
+    /**
+     * 򿪲ӳģʽݿļ
+     * ļڡ汾̡ģʽĿ겻һʱ nullɵ¹
+     * @param path    ļ·
+     * @param size    ̱߳
+     * @param tiles   ģʽеƬ
+     * @param goal    Ŀ״̬
+     * @param entries 
+     * @return ӳļʱΪ null
+     */
+    static PatternDatabaseFile open(Path path, int size, int[] tiles, PuzzleBoard goal, int entries) {
+        if (!Files.exists(path)) return null;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(headerLength(size, tiles.length));
+            if (channel.size() < header.capacity()) {
+                System.out.println("ģʽݿļ: " + path);
+                return null;
+            }
+            while (header.hasRemaining()) {
+                channel.read(header);
+            }
+            header.flip();
+            if (header.getInt() != MAGIC || header.getShort() != VERSION) {
+                System.out.println("ģʽݿļʽ汾: " + path);
+                return null;
+            }
+            int entryBits = readLayout(header, size, tiles, goal);
+            if (entryBits < 0 || header.getInt() != entries) {
+                System.out.println("ģʽݿ뵱ǰĿ겻: " + path);
+                return null;
+            }
+            int states = header.getInt();
+            int length = header.getInt();
+            long checksum = header.getLong();
+            int offset = header.getInt();
+            if (length != (entryBits == 4 ? (entries + 1) >>> 1 : entries)
+                    || channel.size() != (long) offset + length) {
+                System.out.println("ģʽݿļ: " + path);
+                return null;
+            }
+
+            // ӳͨرպȻЧ
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            if (VERIFY && checksum(data) != checksum) {
+                System.out.println("ģʽݿУͲ: " + path);
+                return null;
+            }
+            return new PatternDatabaseFile(data, entryBits, states);
+        } catch (IOException e) {
+            System.out.println("ģʽݿʧ: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * дģʽݿļ
+     * дʱļٸ̲ӳ䵽дһļ
+     * @param path      ļ·
+     * @param size      ̱߳
+     * @param tiles     ģʽеƬ
+     * @param goal      Ŀ״̬
+     * @param entryBits λ4  8
+     * @param entries   
+     * @param states    ɴģʽ
+     * @param table     ۱
+     */
+    static void write(Path path, int size, int[] tiles, PuzzleBoard goal,
+                      int entryBits, int entries, int states, byte[] table) throws IOException {
+        int offset = (headerLength(size, tiles.length) + 7) & ~7;
+        ByteBuffer header = ByteBuffer.allocate(offset);
+        header.putInt(MAGIC).putShort(VERSION);
+        header.put((byte) size).put((byte) entryBits).put((byte) tiles.length);
+        for (int tile : tiles) {
+            header.put((byte) tile);
+        }
+        for (int cell = 0; cell < size * size; cell++) {
+            header.put((byte) goal.tileAt(cell));
+        }
+        header.putInt(entries).putInt(states).putInt(table.length);
+        header.putLong(checksum(ByteBuffer.wrap(table)));
+        header.putInt(offset);
+        header.rewind();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {header, ByteBuffer.wrap(table)};
+            while (buffers[1].hasRemaining()) {
+                channel.write(buffers);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * ˶̱߳ģʽƬĿ겼
+     * @return λһʱΪ -1
+     */
+    private static int readLayout(ByteBuffer header, int size, int[] tiles, PuzzleBoard goal) {
+        int fileSize = header.get();
+        int entryBits = header.get();
+        int k = header.get();
+        if (fileSize != size || (entryBits != 4 && entryBits != 8) || k != tiles.length) {
+            return -1;
+        }
+        for (int tile : tiles) {
+            if (header.get() != tile) return -1;
+        }
+        for (int cell = 0; cell < size * size; cell++) {
+            if (header.get() != goal.tileAt(cell)) return -1;
+        }
+        return entryBits;
+    }
+
+    // ļͷĳ ()
+    private static int headerLength(int size, int k) {
+        return 4 + 2 + 3 + k + size * size + 4 + 4 + 4 + 8 + 4;
+    }
+
+    private static long checksum(ByteBuffer data) {
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate());
+        return crc.getValue();
+    }
+}
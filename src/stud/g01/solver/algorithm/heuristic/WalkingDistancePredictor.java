@@ -0,0 +1,198 @@
+package stud.g01.solver.algorithm.heuristic;
+
+import core.problem.Action;
+import core.problem.State;
+import core.problem.UnsupportedProblemException;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.problem.pathfinding.Move;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Walking Distance (Takahashi) 
+ *
+ * ֻ򣺰̳Ϊһ nn ļ󣬵 r е g ǵǰλڵ r СĿڵ g еĻ
+ * ټϿհ׸ڵСһƶѿհ׸еһƵհ׸У
+ * ռĿֳһιõÿֵĿƶ
+ * ͬ (м)ƶ֮ͬǿɲɵֵҲСپ롣
+ *
+ * ֱֻȡ̹ģĿпհ׸ڵ ()ÿֻһΣʵ
+ * 44  24964 ֣ long ΪĿѰַϣ沽65536 ۹Լ 580KB
+ */
+public class WalkingDistancePredictor implements IncrementalPredictor {
+
+    // ֱÿռλΪ 4
+    private static final int COUNT_BITS = 3;
+    // ֱпհ׸еʼλ
+    private static final int BLANK_SHIFT = PuzzleBoard.PACKED_SIZE * PuzzleBoard.PACKED_SIZE * COUNT_BITS;
+
+    // ֱ ̹ģ * (PACKED_SIZE + 1) + Ŀпհ׸ڵ ״ʹʱ
+    private static final Map<Integer, WalkingTable> WALKING_TABLES = new ConcurrentHashMap<>();
+
+    // 棬ڴ洢ͬĿ״̬ıʱᱻ߳ͬʱȡ
+    private final Map<State, Tables> goalCache = new ConcurrentHashMap<>();
+
+    @Override
+    public int heuristics(State state, State goal) {
+        Tables tables = getTables(goal);
+        PuzzleBoard board = (PuzzleBoard) state;
+        int cells = board.getSize() * board.getSize();
+        long rows = 0;
+        long columns = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            int offset = board.tileAt(cell) * cells + cell;
+            rows += tables.rowUnits[offset];
+            columns += tables.columnUnits[offset];
+        }
+        return tables.rows.distance(rows) + tables.columns.distance(columns);
+    }
+
+    /**
+     * 㣺ƶֻı䰴мĸ֣ƶֻı䰴мĸ֣
+     * ֻԱ仯ķ¼㸸״̬ĸ֣״̬ĸȥϱƶͿհ׸ıõ
+     */
+    @Override
+    public int heuristics(State parent, int parentHeuristics, Action action, State goal) {
+        Tables tables = getTables(goal);
+        PuzzleBoard board = (PuzzleBoard) parent;
+        int cells = board.getSize() * board.getSize();
+        int blank = board.getBlankIndex();
+        int from = board.neighbour(((Move) action).getDirection());
+        int tile = board.tileAt(from);
+
+        boolean vertical = from / board.getSize() != blank / board.getSize();
+        long[] units = vertical ? tables.rowUnits : tables.columnUnits;
+        WalkingTable table = vertical ? tables.rows : tables.columns;
+        long before = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            before += units[board.tileAt(cell) * cells + cell];
+        }
+        long after = before - units[tile * cells + from] + units[tile * cells + blank]
+                - units[blank] + units[from];
+        return parentHeuristics - table.distance(before) + table.distance(after);
+    }
+
+    /**
+     * ȡ򴴽ָĿ״̬ı
+     */
+    private Tables getTables(State goal) {
+        Tables tables = goalCache.get(goal);
+        if (tables == null) {
+            tables = new Tables((PuzzleBoard) goal);
+            goalCache.put(goal, tables);
+        }
+        return tables;
+    }
+
+    private static WalkingTable walkingTable(int size, int blankLine) {
+        return WALKING_TABLES.computeIfAbsent(size * (PuzzleBoard.PACKED_SIZE + 1) + blankLine,
+                key -> new WalkingTable(size, blankLine));
+    }
+
+    /**
+     * һĿ״̬ı [tile * cells + cell] Ż tile λڸ cell ʱԸֱĹף
+     * Ϊ (, Ŀ)  1հ׸ΪڵУиͼøֱ
+     */
+    private static final class Tables {
+        final long[] rowUnits;
+        final long[] columnUnits;
+        final WalkingTable rows;
+        final WalkingTable columns;
+
+        Tables(PuzzleBoard goal) {
+            int n = goal.getSize();
+            if (n > PuzzleBoard.PACKED_SIZE) {
+                // ֱÿ 3 λ nn Ųһ long
+                throw new UnsupportedProblemException("Walking Distance ֲ֧ 4x4 : " + n);
+            }
+            int cells = n * n;
+            rowUnits = new long[cells * cells];
+            columnUnits = new long[cells * cells];
+            for (int target = 0; target < cells; target++) {
+                int tile = goal.tileAt(target);
+                for (int cell = 0; cell < cells; cell++) {
+                    if (tile == 0) {
+                        rowUnits[cell] = (long) (cell / n) << BLANK_SHIFT;
+                        columnUnits[cell] = (long) (cell % n) << BLANK_SHIFT;
+                    } else {
+                        rowUnits[tile * cells + cell] = 1L << (((cell / n) * n + target / n) * COUNT_BITS);
+                        columnUnits[tile * cells + cell] = 1L << (((cell % n) * n + target % n) * COUNT_BITS);
+                    }
+                }
+            }
+            int blank = goal.getBlankIndex();
+            rows = walkingTable(n, blank / n);
+            columns = walkingTable(n, blank % n);
+        }
+    }
+
+    /**
+     * һֹģһĿհиֵĿֵĲ
+     * ֱ룺 (r * n + g)  3 λλڵ r СĿڵ g еĻ BLANK_SHIFT λǿհ׸ڵ
+     */
+    private static final class WalkingTable {
+        private final long[] keys;
+        private final byte[] distances;
+        private final int mask;
+        private final int shift;
+
+        WalkingTable(int n, int blankLine) {
+            long goal = (long) blankLine << BLANK_SHIFT;
+            for (int line = 0; line < n; line++) {
+                goal += (long) (line == blankLine ? n - 1 : n) << ((line * n + line) * COUNT_BITS);
+            }
+
+            // Ŀֳհ׸һĿеĻ齻
+            Map<Long, Integer> visited = new HashMap<>();
+            ArrayDeque<Long> queue = new ArrayDeque<>();
+            visited.put(goal, 0);
+            queue.add(goal);
+            while (!queue.isEmpty()) {
+                long key = queue.poll();
+                int distance = visited.get(key);
+                int blank = (int) (key >>> BLANK_SHIFT);
+                for (int next = blank - 1; next <= blank + 1; next += 2) {
+                    if (next < 0 || next >= n) continue;
+                    for (int g = 0; g < n; g++) {
+                        int shift = (next * n + g) * COUNT_BITS;
+                        if (((key >>> shift) & ((1 << COUNT_BITS) - 1)) == 0) continue;
+                        long moved = key - (1L << shift) + (1L << ((blank * n + g) * COUNT_BITS))
+                                + ((long) (next - blank) << BLANK_SHIFT);
+                        if (visited.putIfAbsent(moved, distance + 1) == null) {
+                            queue.add(moved);
+                        }
+                    }
+                }
+            }
+
+            // ѰַĹϣװӲ 1/2 0 ǺϷ֣λ
+            int capacity = Integer.highestOneBit(visited.size()) << 2;
+            keys = new long[capacity];
+            distances = new byte[capacity];
+            mask = capacity - 1;
+            shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            for (Map.Entry<Long, Integer> entry : visited.entrySet()) {
+                int slot = slot(entry.getKey());
+                keys[slot] = entry.getKey();
+                distances[slot] = (byte) (int) entry.getValue();
+            }
+        }
+
+        int distance(long key) {
+            return distances[slot(key)];
+        }
+
+        // key ڵĲۣڱʱΪӦĿղ
+        private int slot(long key) {
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+            while (keys[slot] != key && keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
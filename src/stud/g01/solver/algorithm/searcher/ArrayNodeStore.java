@@ -0,0 +1,178 @@
+package stud.g01.solver.algorithm.searcher;
+
+import java.util.Arrays;
+
+/**
+ * ڵĽս洢
+ * ֶηֱƽеԭʼУ
+ * ״̬ (long) (int)g  h (short)ýƶǷչ (byte)ÿ 17 ֽڡ
+ * 鰴䣬ÿ 2^16 㣬ʱֻ׷¿飬ݣҲû鷭ʱ¾ݲķֵ
+ * ظһ״̬ΪĿѰַϣ (̽)дž + 10 ΪղۣװӲ 1/2
+ *  Node + ״̬ + ϣ (ÿһٶֽ)ͬĶɼĽ㡣
+ */
+final class ArrayNodeStore implements NodeStore {
+
+    // moves ֽڣ 3 λΪýƶڸ״̬ moves() е±꣬CLOSED λչ
+    private static final int MOVE_MASK = 0x7;
+    private static final int CLOSED = 0x8;
+
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INITIAL_CHUNKS = 16;
+    private static final int INITIAL_INDEX = 1 << 16;
+
+    private long[][] states;
+    private int[][] parents;
+    private short[][] pathCosts;
+    private short[][] heuristics;
+    private byte[][] moves;
+    private int size;
+
+    private int[] index;
+    private int mask;
+
+    ArrayNodeStore() {
+        clear();
+    }
+
+    /**
+     * g  h  Short.MAX_VALUE
+     */
+    @Override
+    public int add(long state, int parent, int pathCost, int heuristic, int move) {
+        int node = size;
+        int chunk = node >>> CHUNK_BITS;
+        if ((node & CHUNK_MASK) == 0) {
+            allocate(chunk);
+        }
+        int offset = node & CHUNK_MASK;
+        states[chunk][offset] = state;
+        parents[chunk][offset] = parent;
+        pathCosts[chunk][offset] = (short) pathCost;
+        heuristics[chunk][offset] = (short) heuristic;
+        moves[chunk][offset] = (byte) move;
+        size++;
+
+        if (size * 2 > index.length) {
+            rehash(index.length << 1);
+        }
+        index[emptySlot(state)] = node + 1;
+        return node;
+    }
+
+    @Override
+    public int find(long state) {
+        int slot = slotOf(state);
+        while (index[slot] != 0) {
+            int node = index[slot] - 1;
+            if (state(node) == state) {
+                return node;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    @Override
+    public void update(int node, int parent, int pathCost, int move) {
+        int chunk = node >>> CHUNK_BITS;
+        int offset = node & CHUNK_MASK;
+        parents[chunk][offset] = parent;
+        pathCosts[chunk][offset] = (short) pathCost;
+        moves[chunk][offset] = (byte) move;
+    }
+
+    @Override
+    public long state(int node) {
+        return states[node >>> CHUNK_BITS][node & CHUNK_MASK];
+    }
+
+    @Override
+    public int parent(int node) {
+        return parents[node >>> CHUNK_BITS][node & CHUNK_MASK];
+    }
+
+    @Override
+    public int pathCost(int node) {
+        return pathCosts[node >>> CHUNK_BITS][node & CHUNK_MASK];
+    }
+
+    @Override
+    public int heuristic(int node) {
+        return heuristics[node >>> CHUNK_BITS][node & CHUNK_MASK];
+    }
+
+    @Override
+    public int move(int node) {
+        return moves[node >>> CHUNK_BITS][node & CHUNK_MASK] & MOVE_MASK;
+    }
+
+    @Override
+    public boolean closed(int node) {
+        return (moves[node >>> CHUNK_BITS][node & CHUNK_MASK] & CLOSED) != 0;
+    }
+
+    @Override
+    public void close(int node) {
+        moves[node >>> CHUNK_BITS][node & CHUNK_MASK] |= CLOSED;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * ˻سʼСռõڴ滹 GC
+     */
+    @Override
+    public void clear() {
+        states = new long[INITIAL_CHUNKS][];
+        parents = new int[INITIAL_CHUNKS][];
+        pathCosts = new short[INITIAL_CHUNKS][];
+        heuristics = new short[INITIAL_CHUNKS][];
+        moves = new byte[INITIAL_CHUNKS][];
+        size = 0;
+        index = new int[INITIAL_INDEX];
+        mask = INITIAL_INDEX - 1;
+    }
+
+    //  chunk 飬ʱ (С)
+    private void allocate(int chunk) {
+        if (chunk == states.length) {
+            int capacity = chunk * 2;
+            states = Arrays.copyOf(states, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            pathCosts = Arrays.copyOf(pathCosts, capacity);
+            heuristics = Arrays.copyOf(heuristics, capacity);
+            moves = Arrays.copyOf(moves, capacity);
+        }
+        states[chunk] = new long[CHUNK_SIZE];
+        parents[chunk] = new int[CHUNK_SIZE];
+        pathCosts[chunk] = new short[CHUNK_SIZE];
+        heuristics[chunk] = new short[CHUNK_SIZE];
+        moves[chunk] = new byte[CHUNK_SIZE];
+    }
+
+    private void rehash(int capacity) {
+        index = new int[capacity];
+        mask = capacity - 1;
+        // ¼Ľ add() Լ
+        for (int node = 0; node < size - 1; node++) {
+            index[emptySlot(state(node))] = node + 1;
+        }
+    }
+
+    private int emptySlot(long state) {
+        int slot = slotOf(state);
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private int slotOf(long state) {
+        return (int) ((state * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,315 @@
+package stud.g01.solver.algorithm.searcher;
+
+import core.problem.Action;
+import core.problem.Problem;
+import core.problem.State;
+import core.problem.UnsupportedProblemException;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.algorithm.searcher.SearchMetrics;
+import core.solver.queue.Node;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * ˫ʽ MM (Meet in the Middle, Holte , 2016)
+ *
+ * ͬʱӳʼ״̬Ŀ״̬ ()Ŀ״̬ʼ״̬ () 
+ *  h(s, goal) h(s, initialState) ֵ
+ *  open  pr(n) = max(g + h, 2g) ÿչ pr Сһ࣬
+ * ඼չ g  C* / 2 Ľ㣬е
+ * ɽʱԲѾ״̬͵õһĽ⣬дС U
+ *  U <= max(C, fminF, fminB, gminF + gminB + ) ʱ U Žֹۣͣ
+ *  C Ϊ pr Сֵfmingmin Ϊ open  fg Сֵ ΪСĵۡ
+ *
+ * ֱ problem ĺɣҪͬ (N-Puzzle 㣬
+ * ȡĿӵεѰ·ⲻ)problem.reversible() Ϊ false ʱܾ⣻
+ * Ԥ밴 goal ֵ goal ģʽݿⲻڷֵ
+ *  generatePath ͬصĽ·㡣
+ */
+public class BidirectionalMM extends AbstractSearcher {
+
+    // ÿչôһ open ֵ
+    private static final int PROGRESS_MASK = (1 << 10) - 1;
+
+    private final Predictor predictor;
+    // Сĵ
+    private final int epsilon;
+
+    // ǰŽĴۣԼý
+    private int best;
+    private Node meetForward;
+    private Node meetBackward;
+
+    /**
+     * Ϊ 1 ʹã N-Puzzle
+     */
+    public BidirectionalMM(Predictor predictor) {
+        this(predictor, 1);
+    }
+
+    /**
+     * @param predictor 
+     * @param epsilon   Сĵۣȷʱ 0
+     */
+    public BidirectionalMM(Predictor predictor, int epsilon) {
+        super(null);
+        if (predictor == null) {
+            throw new IllegalArgumentException("BidirectionalMM Ҫһ Predictor ()");
+        }
+        this.predictor = predictor;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        if (!problem.reversible()) {
+            throw new UnsupportedProblemException("BidirectionalMM ֻ⶯ͬ");
+        }
+        nodesGenerated = 0;
+        nodesExpanded = 0;
+        best = Integer.MAX_VALUE;
+        meetForward = null;
+        meetBackward = null;
+        Predictor predictor = metrics.timed(this.predictor);
+
+        State start = problem.getInitialState();
+        State goal = problem.getGoal();
+        if (problem.goal(start)) {
+            return buildPath(problem, problem.root(), null);
+        }
+        Side forward = new Side(goal, predictor);
+        Side backward = new Side(start, predictor);
+        forward.add(new Node(start, null, null, 0, predictor.heuristics(start, goal)));
+        backward.add(new Node(goal, null, null, 0, predictor.heuristics(goal, start)));
+        nodesGenerated = 2;
+
+        while (forward.hasOpen() && backward.hasOpen()) {
+            int prForward = forward.minPriority();
+            int prBackward = backward.minPriority();
+            int lowerBound = Math.max(Math.min(prForward, prBackward),
+                    Math.max(Math.max(forward.minF(), backward.minF()), forward.minG() + backward.minG() + epsilon));
+            if (best <= lowerBound) {
+                break;
+            }
+
+            // pr ͬʱչ open Сһ
+            boolean forwardTurn = prForward < prBackward
+                    || prForward == prBackward && forward.openSize() <= backward.openSize();
+            Side side = forwardTurn ? forward : backward;
+            Side other = forwardTurn ? backward : forward;
+            Node node = side.poll();
+            nodesExpanded++;
+            if ((nodesExpanded & PROGRESS_MASK) == 0) {
+                metrics.observeFrontier(forward.openSize() + backward.openSize());
+                metrics.observeExplored(forward.closed.size() + backward.closed.size());
+                metrics.progress(nodesGenerated, nodesExpanded, forward.openSize() + backward.openSize());
+            }
+
+            long begin = SearchMetrics.PHASE_TIMING ? System.nanoTime() : 0;
+            List<Node> children = side.children(problem, node);
+            nodesGenerated += children.size();
+            if (SearchMetrics.PHASE_TIMING) metrics.addSuccessorTime(System.nanoTime() - begin);
+
+            begin = SearchMetrics.PHASE_TIMING ? System.nanoTime() : 0;
+            for (Node child : children) {
+                if (!side.add(child)) {
+                    continue;
+                }
+                Node meet = other.reached(child.getState());
+                if (meet != null && child.getPathCost() + meet.getPathCost() < best) {
+                    best = child.getPathCost() + meet.getPathCost();
+                    meetForward = forwardTurn ? child : meet;
+                    meetBackward = forwardTurn ? meet : child;
+                }
+            }
+            if (SearchMetrics.PHASE_TIMING) metrics.addFrontierTime(System.nanoTime() - begin);
+        }
+        metrics.observeFrontier(forward.openSize() + backward.openSize());
+        metrics.observeExplored(forward.closed.size() + backward.closed.size());
+
+        return meetForward == null ? null : buildPath(problem, meetForward, meetBackward);
+    }
+
+    /**
+     * ƴ·طĸߵĿ꣬Ϊÿһҳӵǰ״̬һ״̬Ķ
+     * ֮ɺεĽ㣬ٴĿݵõĽ·
+     */
+    private Deque<Node> buildPath(Problem problem, Node forward, Node backward) {
+        Node last = forward;
+        for (Node curr = backward == null ? null : backward.getParent(); curr != null; curr = curr.getParent()) {
+            last = step(problem, last, curr.getState());
+        }
+        return generatePath(last);
+    }
+
+    private Node step(Problem problem, Node parent, State target) {
+        State state = parent.getState();
+        for (Action action : state.actions()) {
+            if (problem.applicable(state, action)) {
+                State next = state.next(action);
+                if (next.equals(target)) {
+                    return new Node(next, parent, action, parent.getPathCost() + problem.stepCost(next, action));
+                }
+            }
+        }
+        throw new IllegalStateException("·棺" + state + " ޷ " + target);
+    }
+
+    /**
+     * һopen closed Լ open  g ֵf ֵļ
+     * open ǰ pr ȶУĳ״̬ҵС g ֵʱֱӼ½㣬ɽڶУʱ
+     */
+    private static final class Side {
+        private final State target;
+        private final Predictor predictor;
+        private final PriorityQueue<Node> queue = new PriorityQueue<>(BidirectionalMM::compare);
+        // ״̬ǰ open еĽ
+        private final Map<State, Node> open = new HashMap<>();
+        // չ״̬չʱĽ
+        private final Map<State, Node> closed = new HashMap<>();
+        private final Counts pathCosts = new Counts();
+        private final Counts evaluations = new Counts();
+
+        Side(State target, Predictor predictor) {
+            this.target = target;
+            this.predictor = predictor;
+        }
+
+        /**
+         * һɵĽ㣻״̬Բ g ֵ open  closed ʱ
+         * @return  open  true
+         */
+        boolean add(Node node) {
+            State state = node.getState();
+            Node old = open.get(state);
+            if (old != null) {
+                if (old.getPathCost() <= node.getPathCost()) {
+                    return false;
+                }
+                pathCosts.remove(old.getPathCost());
+                evaluations.remove(old.evaluation());
+            } else {
+                old = closed.get(state);
+                if (old != null) {
+                    if (old.getPathCost() <= node.getPathCost()) {
+                        return false;
+                    }
+                    closed.remove(state);
+                }
+            }
+            open.put(state, node);
+            queue.offer(node);
+            pathCosts.add(node.getPathCost());
+            evaluations.add(node.evaluation());
+            return true;
+        }
+
+        /**
+         * ȡ pr СĽ㲢 closed 
+         */
+        Node poll() {
+            Node node = top();
+            queue.poll();
+            open.remove(node.getState());
+            closed.put(node.getState(), node);
+            pathCosts.remove(node.getPathCost());
+            evaluations.remove(node.evaluation());
+            return node;
+        }
+
+        /**
+         * @return 򵽴 state Ľ (open )δʱΪ null
+         */
+        Node reached(State state) {
+            Node node = open.get(state);
+            return node != null ? node : closed.get(state);
+        }
+
+        List<Node> children(Problem problem, Node parent) {
+            List<Node> children = problem.childNodes(parent);
+            State parentState = parent.getState();
+            for (Node child : children) {
+                child.setHeuristic(predictor instanceof IncrementalPredictor incremental
+                        ? incremental.heuristics(parentState, parent.getHeuristic(), child.getAction(), target)
+                        : predictor.heuristics(child.getState(), target));
+            }
+            return children;
+        }
+
+        boolean hasOpen() {
+            return !open.isEmpty();
+        }
+
+        int openSize() {
+            return open.size();
+        }
+
+        int minPriority() {
+            return priority(top());
+        }
+
+        int minG() {
+            return pathCosts.min();
+        }
+
+        int minF() {
+            return evaluations.min();
+        }
+
+        // ѱС g ֵȡľɽ
+        private Node top() {
+            Node node = queue.peek();
+            while (open.get(node.getState()) != node) {
+                queue.poll();
+                node = queue.peek();
+            }
+            return node;
+        }
+    }
+
+    private static int priority(Node node) {
+        return Math.max(node.evaluation(), 2 * node.getPathCost());
+    }
+
+    // pr ͬʱȡ g ֵСĽ
+    private static int compare(Node a, Node b) {
+        int pa = priority(a);
+        int pb = priority(b);
+        return pa != pb ? Integer.compare(pa, pb) : Integer.compare(a.getPathCost(), b.getPathCost());
+    }
+
+    /**
+     * СķǸĶؼϣ֧ɾȡСֵ
+     */
+    private static final class Counts {
+        private int[] counts = new int[64];
+        // Сֵ½
+        private int low = Integer.MAX_VALUE;
+
+        void add(int value) {
+            if (value >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(counts.length * 2, value + 1));
+            }
+            counts[value]++;
+            if (value < low) low = value;
+        }
+
+        void remove(int value) {
+            counts[value]--;
+        }
+
+        int min() {
+            while (low < counts.length && counts[low] == 0) {
+                low++;
+            }
+            return low < counts.length ? low : Integer.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package stud.g01.solver.algorithm.searcher;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.problem.UnsupportedProblemException;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.algorithm.searcher.SearchMetrics;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.problem.pathfinding.Move;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * ʹýս洢 (NodeStore)  A* 㷨ֻܴһ long  N-Puzzle ( 4x4)
+ *
+ * в Node 󣺽 NodeStore е int open ǰ f Ͱľջ
+ * չʱ״̬װһ̵̣ıٳֵɸ h 㡣
+ * ҵظݣӳʼ״̬طų Deque<Node> ʽĽ· ()
+ * ͬһ f ͰںȳµĽչ
+ * ԸС g µɵ״̬ʱԭ޸ g ͸㲢· open  (չҲ´)
+ * һʱ (ģʽݿ) ҵŽ⡣
+ *  PuzzleFeeder  -Dnpuzzle.astar.compact=true ʱ aStar ʹá
+ * ģʽ (-Dnpuzzle.astar.offheap=true) ½¼ظĹϣ open  () ڶڴУ
+ * Java ֻݣGC ͣٲ open ʱ黹ȫڴ档
+ */
+public class CompactAStar extends AbstractSearcher {
+
+    // ÿչôһ open /洢ֵ
+    private static final int PROGRESS_MASK = (1 << 10) - 1;
+
+    private final Predictor predictor;
+    private final NodeStore store;
+    private final OpenList open;
+
+    public CompactAStar(Predictor predictor) {
+        this(predictor, false);
+    }
+
+    /**
+     * @param predictor 
+     * @param offHeap   Ƿѽ open ڶڴ
+     */
+    public CompactAStar(Predictor predictor, boolean offHeap) {
+        super(null);
+        if (predictor == null) {
+            throw new IllegalArgumentException("CompactAStar Ҫһ Predictor ()");
+        }
+        this.predictor = predictor;
+        this.store = offHeap ? new OffHeapNodeStore() : new ArrayNodeStore();
+        this.open = offHeap ? new OffHeapOpenList() : new OpenBuckets();
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        if (!problem.solvable()) {
+            return null;
+        }
+        store.clear();
+        open.clear();
+        nodesGenerated = 1;
+        nodesExpanded = 0;
+        Predictor predictor = metrics.timed(this.predictor);
+
+        Node root = problem.root(predictor);
+        PuzzleBoard board = ((PuzzleBoard) root.getState()).copy();
+        if (!board.hasKey()) {
+            throw new UnsupportedProblemException("CompactAStar ֻⲻ 4x4  N-Puzzle: " + board.getSize());
+        }
+        open.push(store.add(board.getTiles(), NodeStore.NONE, 0, root.getHeuristic(), NodeStore.ROOT_MOVE),
+                root.evaluation());
+
+        try {
+            while (!open.isEmpty()) {
+                int f = open.minKey();
+                int node = open.pop();
+                // չ֮ԸС g · open ڵľ
+                if (store.closed(node) || store.pathCost(node) + store.heuristic(node) != f) {
+                    continue;
+                }
+                board.load(store.state(node));
+                if (problem.goal(board)) {
+                    return buildPath(root, node);
+                }
+                store.close(node);
+                nodesExpanded++;
+                if ((nodesExpanded & PROGRESS_MASK) == 0) {
+                    metrics.observeFrontier((int) Math.min(open.size(), Integer.MAX_VALUE));
+                    metrics.observeExplored(store.size());
+                    metrics.progress(nodesGenerated, nodesExpanded, open.size());
+                }
+
+                long start = SearchMetrics.PHASE_TIMING ? System.nanoTime() : 0;
+                expand(problem, predictor, board, node);
+                if (SearchMetrics.PHASE_TIMING) metrics.addSuccessorTime(System.nanoTime() - start);
+            }
+            return null;
+        } finally {
+            metrics.observeFrontier((int) Math.min(open.size(), Integer.MAX_VALUE));
+            metrics.observeExplored(store.size());
+            // ·طΪ Node黹 open ռõڴ
+            store.clear();
+            open.clear();
+        }
+    }
+
+    /**
+     * ɹ ( node ״̬) ọ̈̄״̬洢g С״̬ԭظ£ open 
+     */
+    private void expand(Problem problem, Predictor predictor, PuzzleBoard board, int node) {
+        State goal = problem.getGoal();
+        int pathCost = store.pathCost(node);
+        int heuristic = store.heuristic(node);
+        int blank = board.getBlankIndex();
+        List<Move> moves = board.moves();
+        for (int m = 0; m < moves.size(); m++) {
+            Move move = moves.get(m);
+            int target = board.neighbour(move.getDirection());
+            int cost = pathCost + problem.stepCost(board, move);
+            nodesGenerated++;
+
+            board.slide(target);
+            long state = board.getTiles();
+            board.slide(blank);
+            int child = store.find(state);
+            if (child == NodeStore.NONE) {
+                int h = childHeuristic(predictor, board, heuristic, move, target, goal);
+                open.push(store.add(state, node, cost, h, m), cost + h);
+            } else if (cost < store.pathCost(child)) {
+                store.update(child, node, cost, m);
+                open.push(child, cost + store.heuristic(child));
+            }
+        }
+    }
+
+    /**
+     * ӽֵԤʱɸ h 㣬һ h ˻
+     */
+    private static int childHeuristic(Predictor predictor, PuzzleBoard board, int heuristic,
+                                      Move move, int target, State goal) {
+        if (predictor instanceof IncrementalPredictor incremental) {
+            return incremental.heuristics(board, heuristic, move, goal);
+        }
+        int blank = board.getBlankIndex();
+        board.slide(target);
+        int h = predictor.heuristics(board, goal);
+        board.slide(blank);
+        return h;
+    }
+
+    /**
+     * ظݳϵĸ㣬ٴӸ㰴¼ƶطų Node
+     */
+    private Deque<Node> buildPath(Node root, int goal) {
+        int depth = 0;
+        for (int node = goal; store.parent(node) != NodeStore.NONE; node = store.parent(node)) {
+            depth++;
+        }
+        int[] handles = new int[depth];
+        for (int node = goal, i = depth - 1; i >= 0; node = store.parent(node), i--) {
+            handles[i] = node;
+        }
+
+        Deque<Node> path = new ArrayDeque<>();
+        Node curr = root;
+        path.add(curr);
+        for (int node : handles) {
+            PuzzleBoard state = (PuzzleBoard) curr.getState();
+            Move move = state.moves().get(store.move(node));
+            curr = new Node(state.next(move), curr, move, store.pathCost(node), store.heuristic(node));
+            path.add(curr);
+        }
+        return path;
+    }
+
+    /**
+     * open  f ͰľջͰںȳ
+     *  BucketFrontier һһֻڲС f ʱ˵ָСͰڵľͰʱٶ
+     */
+    private static final class OpenBuckets implements OpenList {
+        private static final int INITIAL_KEYS = 128;
+        private static final int INITIAL_BUCKET = 256;
+
+        private int[][] buckets = new int[INITIAL_KEYS][];
+        private int[] counts = new int[INITIAL_KEYS];
+        private int minKey = Integer.MAX_VALUE;
+        private long size;
+
+        @Override
+        public void push(int node, int key) {
+            if (key >= buckets.length) {
+                int capacity = Math.max(buckets.length * 2, key + 1);
+                buckets = Arrays.copyOf(buckets, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+            int[] bucket = buckets[key];
+            if (bucket == null) {
+                bucket = buckets[key] = new int[INITIAL_BUCKET];
+            } else if (counts[key] == bucket.length) {
+                bucket = buckets[key] = Arrays.copyOf(bucket, bucket.length * 2);
+            }
+            bucket[counts[key]++] = node;
+            minKey = Math.min(minKey, key);
+            size++;
+        }
+
+        /**
+         * @return СǿͰ f ֵopen Ϊ
+         */
+        @Override
+        public int minKey() {
+            while (counts[minKey] == 0) {
+                minKey++;
+            }
+            return minKey;
+        }
+
+        /**
+         * СǿͰȡľǰȵ minKey()
+         */
+        @Override
+        public int pop() {
+            size--;
+            int node = buckets[minKey][--counts[minKey]];
+            if (counts[minKey] == 0) {
+                // յͰٱf ʱٱõ
+                buckets[minKey] = null;
+            }
+            return node;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            buckets = new int[INITIAL_KEYS][];
+            counts = new int[INITIAL_KEYS];
+            minKey = Integer.MAX_VALUE;
+            size = 0;
+        }
+    }
+}
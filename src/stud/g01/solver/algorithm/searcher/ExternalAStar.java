@@ -0,0 +1,483 @@
+package stud.g01.solver.algorithm.searcher;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.problem.UnsupportedProblemException;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.problem.pathfinding.Move;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * ϵĹȵ A* (BFIDA*, Zhou & Hansen 2004)Ϊ null ʱ
+ *
+ * ÿ״̬ ( long) źдʱĿ¼µһļУڴֻдСԤƵĻ
+ * չ d ʱ˳ļ f = g + h ֵĺռ򻺳˾ȥأдһĶļ
+ * չ·鲢ļͬʱȥ d ͵ d - 1  (ӳظ)õ d + 1 㡣
+ * Ҵ۶Ϊ 1 d + 1 ״̬ǰֹֻУĲ㲻ز鲢
+ * µһΪʱֵֽȡֱĺС f һ֣ûʱֻһֵ֣Ϊ
+ * ҵĿĿڲأڲļжֲҵǰ״̬ھӣؽ·
+ *
+ * -Dnpuzzle.external.dir ʱĿ¼λ (ĬΪ java.io.tmpdir)ÿ½һĿ¼ʱɾ
+ * ָĲļؽ·
+ * -Dnpuzzle.external.memory=MB 򻺳дõڴԤ㣬Ĭ 64MB
+ * ÿ״̬ɸòʱдֽ SearchMetrics.layer()
+ * ֻ N-Puzzle״̬Ҫܴһ long 44 ûд룬ֱӾܾ
+ */
+public class ExternalAStar extends AbstractSearcher {
+
+    private static final String SCRATCH = System.getProperty("npuzzle.external.dir", System.getProperty("java.io.tmpdir"));
+    private static final long MEMORY_BYTES = Long.getLong("npuzzle.external.memory", 64L) << 20;
+    // 򻺳ռڴԤһ룬 INITIAL_SORT_LONGS ʼӱ
+    private static final int MAX_SORT_LONGS = (int) Math.min(MEMORY_BYTES / 2 / Long.BYTES, Integer.MAX_VALUE - 8);
+    private static final int INITIAL_SORT_LONGS = Math.min(1 << 16, MAX_SORT_LONGS);
+    // ÿļĶдĴСΧļ޻СʱļС
+    private static final int MIN_BUFFER_BYTES = 1 << 16;
+    private static final int MAX_BUFFER_BYTES = 1 << 24;
+    // ÿչô㷢һν
+    private static final int PROGRESS_MASK = (1 << 16) - 1;
+
+    private final Predictor predictor;
+    // ʵʹõԤ򿪷ֽ׶μʱʱΪۼƹֵʱİװûʱΪ null
+    private Predictor estimator;
+    private Problem problem;
+    private Path directory;
+    // 򻺳
+    private long[] sortBuffer;
+    // ɵǰһʱдֽ
+    private long bytesRead;
+    private long bytesWritten;
+    // ֱĺС f
+    private int next;
+    // ɵһǷĿ״̬
+    private boolean reached;
+
+    /**
+     * @param predictor Ϊ null ʱ֦Ĺ
+     */
+    public ExternalAStar(Predictor predictor) {
+        super(null);
+        this.predictor = predictor;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        if (!problem.solvable()) {
+            return null;
+        }
+        this.problem = problem;
+        nodesGenerated = 1;
+        nodesExpanded = 0;
+        estimator = predictor == null ? null : metrics.timed(predictor);
+        Node root = estimator == null ? problem.root() : problem.root(estimator);
+        if (!(root.getState() instanceof PuzzleBoard start)) {
+            throw new UnsupportedProblemException("ExternalAStar ֻ N-Puzzle ");
+        }
+        if (!start.hasKey()) {
+            throw new UnsupportedProblemException("ExternalAStar ֻⲻ 4x4  N-Puzzle: " + start.getSize());
+        }
+
+        try {
+            directory = Files.createTempDirectory(Path.of(SCRATCH), "npuzzle-external-");
+            sortBuffer = new long[INITIAL_SORT_LONGS];
+            try {
+                int bound = estimator == null ? Integer.MAX_VALUE : root.getHeuristic();
+                while (true) {
+                    long generated = nodesGenerated;
+                    long expanded = nodesExpanded;
+                    int depth = iterate(start, bound);
+                    metrics.iteration(bound, nodesGenerated - generated, nodesExpanded - expanded);
+                    if (depth >= 0) {
+                        return generatePath(rebuild(root, depth));
+                    }
+                    if (next == Integer.MAX_VALUE) {
+                        return null;
+                    }
+                    bound = next;
+                }
+            } finally {
+                sortBuffer = null;
+                deleteDirectory(directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("дʱļʧ", e);
+        }
+    }
+
+    /**
+     *  bound Ϊֵӳʼ״̬
+     * @return ĿڵȣûҵĿʱΪ -1
+     */
+    private int iterate(PuzzleBoard start, int bound) throws IOException {
+        next = Integer.MAX_VALUE;
+        reached = false;
+        long goal = ((PuzzleBoard) problem.getGoal()).getTiles();
+        bytesWritten = 0;
+        try (LongWriter layer = new LongWriter(layerFile(0), Long.BYTES)) {
+            layer.write(start.getTiles());
+        }
+        metrics.layer(0, 1, 0, bytesWritten);
+        if (start.getTiles() == goal) {
+            return 0;
+        }
+
+        for (int depth = 0; ; depth++) {
+            bytesRead = 0;
+            bytesWritten = 0;
+            List<Path> runs = expandLayer(depth, bound);
+            long states = mergeRuns(runs, depth, goal);
+            metrics.layer(depth + 1, states, bytesRead, bytesWritten);
+            if (reached) {
+                return depth + 1;
+            }
+            if (states == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * ˳ depth 㲢չֵڵĺ̷Ž򻺳˾дһļ
+     * @return ļд˳
+     */
+    private List<Path> expandLayer(int depth, int bound) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        long[] buffer = sortBuffer;
+        int count = 0;
+        State goal = problem.getGoal();
+        PuzzleBoard board = ((PuzzleBoard) problem.getInitialState()).copy();
+        Path file = layerFile(depth);
+        try (LongReader layer = new LongReader(file, bufferBytes(1, Files.size(file)))) {
+            while (layer.hasNext()) {
+                board.load(layer.next());
+                nodesExpanded++;
+                if ((nodesExpanded & PROGRESS_MASK) == 0) {
+                    metrics.progress(nodesGenerated, nodesExpanded, depth);
+                }
+                int heuristic = estimator == null ? 0 : estimator.heuristics(board, goal);
+                int blank = board.getBlankIndex();
+                List<Move> moves = board.moves();
+                for (int m = 0; m < moves.size(); m++) {
+                    Move move = moves.get(m);
+                    int target = board.neighbour(move.getDirection());
+                    nodesGenerated++;
+                    if (estimator != null) {
+                        int f = depth + 1 + childHeuristic(board, heuristic, move, target, goal);
+                        if (f > bound) {
+                            next = Math.min(next, f);
+                            continue;
+                        }
+                    }
+                    board.slide(target);
+                    long child = board.getTiles();
+                    board.slide(blank);
+                    if (count == buffer.length) {
+                        if (buffer.length < MAX_SORT_LONGS) {
+                            buffer = sortBuffer = Arrays.copyOf(buffer, (int) Math.min(2L * buffer.length, MAX_SORT_LONGS));
+                        } else {
+                            runs.add(writeRun(buffer, count, runs.size()));
+                            count = 0;
+                        }
+                    }
+                    buffer[count++] = child;
+                }
+            }
+        }
+        if (count > 0) {
+            runs.add(writeRun(buffer, count, runs.size()));
+        }
+        return runs;
+    }
+
+    /**
+     * ѻеǰ count ״̬ȥأдһļ
+     */
+    private Path writeRun(long[] buffer, int count, int index) throws IOException {
+        Arrays.sort(buffer, 0, count);
+        Path run = directory.resolve("run-" + index + ".bin");
+        try (LongWriter writer = new LongWriter(run, bufferBytes(1, (long) count * Long.BYTES))) {
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || buffer[i] != buffer[i - 1]) {
+                    writer.write(buffer[i]);
+                }
+            }
+        }
+        return run;
+    }
+
+    /**
+     * ·鲢ļȥظ״̬Լڵ depth 㡢 depth - 1 е״̬дɵ depth + 1 㣬ɾļ
+     * @return  depth + 1 ״̬
+     */
+    private long mergeRuns(List<Path> runs, int depth, long goal) throws IOException {
+        int streams = runs.size() + 3;
+        long total = 0;
+        for (Path run : runs) {
+            total += Files.size(run);
+        }
+        List<LongReader> readers = new ArrayList<>(runs.size());
+        long count = 0;
+        try (LongWriter layer = new LongWriter(layerFile(depth + 1), bufferBytes(streams, total));
+             LongReader current = reader(layerFile(depth), streams);
+             LongReader previous = depth > 0 ? reader(layerFile(depth - 1), streams) : null) {
+            PriorityQueue<LongReader> heads = new PriorityQueue<>(Math.max(runs.size(), 1),
+                    Comparator.comparingLong(LongReader::peek));
+            for (Path run : runs) {
+                LongReader reader = reader(run, streams);
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    heads.add(reader);
+                }
+            }
+
+            boolean first = true;
+            long last = 0;
+            while (!heads.isEmpty()) {
+                LongReader reader = heads.poll();
+                long state = reader.next();
+                if (reader.hasNext()) {
+                    heads.add(reader);
+                }
+                if (!first && state == last) {
+                    continue;
+                }
+                first = false;
+                last = state;
+                if (current.skipTo(state) || (previous != null && previous.skipTo(state))) {
+                    continue;
+                }
+                layer.write(state);
+                count++;
+                if (state == goal) {
+                    reached = true;
+                }
+            }
+        } finally {
+            for (LongReader reader : readers) {
+                reader.close();
+            }
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * ӵ depth Ŀأһҵǰ״̬һھӣٴӸ㰴Щ״̬طų·
+     */
+    private Node rebuild(Node root, int depth) throws IOException {
+        long[] states = new long[depth + 1];
+        PuzzleBoard board = ((PuzzleBoard) problem.getGoal()).copy();
+        states[depth] = board.getTiles();
+        for (int d = depth - 1; d >= 0; d--) {
+            board.load(states[d + 1]);
+            int blank = board.getBlankIndex();
+            boolean found = false;
+            try (FileChannel layer = FileChannel.open(layerFile(d), StandardOpenOption.READ)) {
+                for (Move move : board.moves()) {
+                    board.slide(board.neighbour(move.getDirection()));
+                    long neighbour = board.getTiles();
+                    board.slide(blank);
+                    if (contains(layer, neighbour)) {
+                        states[d] = neighbour;
+                        found = true;
+                        break;
+                    }
+                }
+            }
+            if (!found) {
+                throw new IllegalStateException(" " + d + " Ҳ·ϵ״̬");
+            }
+        }
+
+        State goal = problem.getGoal();
+        Node node = root;
+        for (int d = 1; d <= depth; d++) {
+            PuzzleBoard state = (PuzzleBoard) node.getState();
+            for (Move move : state.moves()) {
+                PuzzleBoard child = (PuzzleBoard) state.next(move);
+                if (child.getTiles() == states[d]) {
+                    int h = estimator == null ? 0 : estimator.heuristics(child, goal);
+                    node = new Node(child, node, move, node.getPathCost() + problem.stepCost(state, move), h);
+                    break;
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Ĳļжֲ state
+     */
+    private static boolean contains(FileChannel layer, long state) throws IOException {
+        ByteBuffer entry = ByteBuffer.allocate(Long.BYTES);
+        long low = 0;
+        long high = layer.size() / Long.BYTES - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            entry.clear();
+            while (entry.hasRemaining() && layer.read(entry, mid * Long.BYTES + entry.position()) >= 0) {
+                //  8 ֽ
+            }
+            long value = entry.getLong(0);
+            if (value < state) {
+                low = mid + 1;
+            } else if (value > state) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * ӽֵԤʱɸ h 㣬һ h ˻
+     */
+    private int childHeuristic(PuzzleBoard board, int heuristic, Move move, int target, State goal) {
+        if (estimator instanceof IncrementalPredictor incremental) {
+            return incremental.heuristics(board, heuristic, move, goal);
+        }
+        int blank = board.getBlankIndex();
+        board.slide(target);
+        int h = estimator.heuristics(board, goal);
+        board.slide(blank);
+        return h;
+    }
+
+    private Path layerFile(int depth) {
+        return directory.resolve("layer-" + depth + ".bin");
+    }
+
+    private LongReader reader(Path file, int streams) throws IOException {
+        return new LongReader(file, bufferBytes(streams, Files.size(file)));
+    }
+
+    /**
+     * ͬʱ streams ļʱÿļĶдСռڴԤһ룬ļĴС bytes
+     */
+    private static int bufferBytes(int streams, long bytes) {
+        long share = Math.max(MIN_BUFFER_BYTES, Math.min(MEMORY_BYTES / 2 / streams, MAX_BUFFER_BYTES));
+        return (int) Math.max(Long.BYTES, Math.min(share, bytes)) & -Long.BYTES;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * ˳ȡһ long ɵļֽ뵱ǰһ
+     */
+    private final class LongReader implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        LongReader(Path path, int bufferBytes) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer = ByteBuffer.allocate(bufferBytes);
+            buffer.flip();
+        }
+
+        boolean hasNext() throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                fill();
+            }
+            return buffer.remaining() >= Long.BYTES;
+        }
+
+        /**
+         * һ longƶȡλãǰ hasNext() ӦΪ true
+         */
+        long peek() {
+            return buffer.getLong(buffer.position());
+        }
+
+        long next() {
+            return buffer.getLong();
+        }
+
+        /**
+         * С state ֵ
+         * @return һֵ state ʱΪ true
+         */
+        boolean skipTo(long state) throws IOException {
+            while (hasNext() && peek() < state) {
+                next();
+            }
+            return hasNext() && peek() == state;
+        }
+
+        private void fill() throws IOException {
+            buffer.compact();
+            int read;
+            while (buffer.hasRemaining() && (read = channel.read(buffer)) >= 0) {
+                bytesRead += read;
+            }
+            buffer.flip();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * ˳дһ long ɵļдֽ뵱ǰһ
+     */
+    private final class LongWriter implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        LongWriter(Path path, int bufferBytes) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer = ByteBuffer.allocate(bufferBytes);
+        }
+
+        void write(long value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+}
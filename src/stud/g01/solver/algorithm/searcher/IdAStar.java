@@ -1,22 +1,73 @@
 package stud.g01.solver.algorithm.searcher;
 
 import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.IncrementalPredictor;
 import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.algorithm.searcher.SearchMetrics;
 import core.solver.algorithm.heuristic.Predictor;
 import core.solver.queue.Frontier;
 import core.solver.queue.Node;
+import stud.g01.problem.npuzzle.PuzzleBoard;
+import stud.problem.pathfinding.Move;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A*㷨ҪͬѧԼд
+ *
+ * N-Puzzle Ĭʹԭһƶʽջݹ飬
+ * 游״̬Ƚϣ̰ h Сչʱκζ
+ *  -Dnpuzzle.ida.recursive=true ʱ Node ĵݹʵ֡
+ *  -Dnpuzzle.ida.parallelism=N (N > 1) ʱÿһֵ ForkJoinPool ϲУ
+ *  npuzzle.ida.split ڵĽ񣬿߳ȡ
+ * ̰߳ѳֵС f ֵܵͬһԭӱһ߳ڵǰֵҵֹ߳̾ͣ
+ *  -Dnpuzzle.ida.tt=M (M > 0) ʱԭʹ M MB û (ʱ̹߳)
+ * ֵѾԲڵǰ g Ĵ״ֱ̬Ӽ
+ * ״̬شĴ½Ժֵд h ֦
+ *  -Dnpuzzle.ida.bpmx=true ʱʹ˫ pathmax (BPMX) ڸӽ֮䴫 h
+ * ڽ h ֮ƶ̵ۣ h ȥƶǸ h ½磬 h ȥƶҲǺ̵½硣
+ * ȡֵϻżһ£ڽ h ܴ
+ * һ h ܴļ̻́߸ fֵʱʣĺ̲
+ * ̧ߺ h ֻջУд NodeҲԤ̣֦ SearchMetrics.cutoffs()
+ * ʱֻڸڲʹ BPMX
  */
 
 public class IdAStar extends AbstractSearcher {
+    private static final boolean RECURSIVE = Boolean.getBoolean("npuzzle.ida.recursive");
+    // һĺ (N-Puzzle Ϊ 4)
+    private static final int BRANCHING = 4;
+    private static final int INITIAL_DEPTH = 64;
+    // ߳ĬΪ 1 (߳)-Dnpuzzle.ida.parallelism=0 ʾʹȫ
+    private static final int PARALLELISM = parallelism(Integer.getInteger("npuzzle.ida.parallelism", 1));
+    // ʱڸչȣÿȵĽΪһ
+    private static final int SPLIT_DEPTH = Integer.getInteger("npuzzle.ida.split", 8);
+    // ÿչôһ߳Ƿҵ
+    private static final int CANCEL_CHECK_MASK = (1 << 10) - 1;
+    // ߳ԭʱÿչô㷢һν
+    private static final int PROGRESS_MASK = (1 << 16) - 1;
+    // ûռõڴ (MB)ĬΪ 0 ʹû
+    private static final long TABLE_MEGABYTES = Long.getLong("npuzzle.ida.tt", 0);
+    // Ƿڸӽ֮ BPMX  hĬϹر
+    private static final boolean BPMX = Boolean.getBoolean("npuzzle.ida.bpmx");
+
     Predictor predictor;
+    // ʵʹõԤ򿪷ֽ׶μʱʱΪۼƹֵʱİװ
+    private Predictor estimator;
     int maxDepth = 0; //ֵ
     private Node answer;  //ڵ
     private Problem problem;
+    // ԭûͬһʱãÿǰ
+    private TranspositionTable transpositions;
 
     public IdAStar(Frontier frontier, Predictor predictor) {
         super(frontier);
@@ -25,20 +76,40 @@ public class IdAStar extends AbstractSearcher {
 
     // dfs
     public int IDASearch(Node node, Node parent) {
-        if (node.evaluation() > maxDepth)
-            return node.evaluation();
+        return IDASearch(node, parent, node.getHeuristic());
+    }
+
+    // heuristic Ϊ node  h BPMX ʱѱ̧
+    private int IDASearch(Node node, Node parent, int heuristic) {
+        if (node.getPathCost() + heuristic > maxDepth)
+            return node.getPathCost() + heuristic;
         if (problem.goal(node.getState())) {
             answer = node;
             return 0;
         }
         nodesExpanded++;
         int res = Integer.MAX_VALUE;
-        for (Node child : problem.childNodes(node, predictor)) {
+        long start = SearchMetrics.PHASE_TIMING ? System.nanoTime() : 0;
+        List<Node> children = problem.childNodes(node, estimator);
+        if (SearchMetrics.PHASE_TIMING) metrics.addSuccessorTime(System.nanoTime() - start);
+        if (BPMX) {
+            // ̵ h ȥƶۻش nodeֵʱκκ
+            for (Node child : children) {
+                heuristic = Math.max(heuristic, child.getHeuristic() - (child.getPathCost() - node.getPathCost()));
+            }
+            if (node.getPathCost() + heuristic > maxDepth) {
+                metrics.addCutoffs(1);
+                return node.getPathCost() + heuristic;
+            }
+        }
+        for (Node child : children) {
 
             if (parent != null && child.getState().equals(parent.getState()))
                 continue;
             nodesGenerated++;
-            int t = IDASearch(child, node);
+            int h = BPMX ? Math.max(child.getHeuristic(), heuristic - (child.getPathCost() - node.getPathCost()))
+                    : child.getHeuristic();
+            int t = IDASearch(child, node, h);
             if (t == 0)
                 return 0;
             res = Math.min(res, t);
@@ -58,19 +129,492 @@ public class IdAStar extends AbstractSearcher {
         // Ҫopenclose
         nodesExpanded = 0;
         nodesGenerated = 0;
+        estimator = metrics.timed(predictor);
 
         // ʼڵroot
-        Node root = problem.root(predictor);
+        Node root = problem.root(estimator);
+        if (!RECURSIVE && root.getState() instanceof PuzzleBoard start) {
+            return searchInPlace(root, start);
+        }
 
         // Ϊʼڵֵ
         // ÿ
         maxDepth = root.getHeuristic();
         while (true) {
+            long generated = nodesGenerated;
+            long expanded = nodesExpanded;
             int res = IDASearch(root, null);
+            metrics.iteration(maxDepth, nodesGenerated - generated, nodesExpanded - expanded);
             if (res == 0)
                 break;
             maxDepth = res;
         }
         return generatePath(answer);
     }
-}
\ No newline at end of file
+
+    /* ===================== ԭ ===================== */
+
+    private Deque<Node> searchInPlace(Node root, PuzzleBoard start) {
+        if (TABLE_MEGABYTES > 0) {
+            if (transpositions == null) {
+                transpositions = new TranspositionTable(TABLE_MEGABYTES << 20);
+            } else {
+                transpositions.clear();
+            }
+        }
+        maxDepth = root.getHeuristic();
+        Move[] moves = PARALLELISM > 1 ? searchParallel(root, start) : searchSequential(root, start);
+        return generatePath(buildAnswer(root, moves));
+    }
+
+    private Move[] searchSequential(Node root, PuzzleBoard start) {
+        Walker walker = new Walker(start.copy(), null);
+        int depth;
+        while (true) {
+            long generated = walker.generated;
+            long expanded = walker.expanded;
+            depth = walker.iterate(maxDepth, -1, 0, root.getHeuristic());
+            metrics.iteration(maxDepth, walker.generated - generated, walker.expanded - expanded);
+            if (depth >= 0) break;
+            maxDepth = -depth;
+        }
+        nodesExpanded += walker.expanded;
+        nodesGenerated += walker.generated;
+        metrics.addCutoffs(walker.cutoffs);
+        return walker.solution(depth);
+    }
+
+    /**
+     * ÿһֵѸ SPLIT_DEPTH չ񽻸 ForkJoinPool
+     * ֵΪ bound ʱҵκνⶼŽ⣬ĸ߳ҵͲĸ
+     */
+    private Move[] searchParallel(Node root, PuzzleBoard start) {
+        ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+        try {
+            while (true) {
+                Round round = new Round(maxDepth);
+                pool.invoke(new SubtreeTask(round, start.copy(), -1, 0, root.getHeuristic(), new Move[0]));
+                long expanded = round.expanded.sum();
+                long generated = round.generated.sum();
+                nodesExpanded += expanded;
+                nodesGenerated += generated;
+                metrics.addCutoffs(round.cutoffs.sum());
+                metrics.iteration(maxDepth, generated, expanded);
+                metrics.progress(nodesGenerated, nodesExpanded, 0);
+
+                Move[] solution = round.solution.get();
+                if (solution != null) {
+                    return solution;
+                }
+                maxDepth = round.next.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * ƶдӳʼ״̬طų·ϵĽ
+     */
+    private Node buildAnswer(Node root, Move[] moves) {
+        State goal = problem.getGoal();
+        Node node = root;
+        for (Move move : moves) {
+            State state = node.getState().next(move);
+            int pathCost = node.getPathCost() + problem.stepCost(node.getState(), move);
+            node = new Node(state, node, move, pathCost, predictor.heuristics(state, goal));
+        }
+        answer = node;
+        return node;
+    }
+
+    /**
+     * ӽֵԤʱɸ h 㣬һ h ˻
+     */
+    private int childHeuristic(PuzzleBoard board, int heuristic, Move move, int target) {
+        if (estimator instanceof IncrementalPredictor incremental) {
+            return incremental.heuristics(board, heuristic, move, problem.getGoal());
+        }
+        int blank = board.getBlankIndex();
+        board.slide(target);
+        int h = estimator.heuristics(board, problem.getGoal());
+        board.slide(blank);
+        return h;
+    }
+
+    private static int parallelism(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * һֵи̹߳
+     */
+    private static final class Round {
+        private final int bound;
+        // ֵС f ֵһֵֵ
+        private final AtomicInteger next = new AtomicInteger(Integer.MAX_VALUE);
+        // һҵĽ (ӳʼ״̬ƶ)
+        private final AtomicReference<Move[]> solution = new AtomicReference<>();
+        private final LongAdder expanded = new LongAdder();
+        private final LongAdder generated = new LongAdder();
+        private final LongAdder cutoffs = new LongAdder();
+
+        Round(int bound) {
+            this.bound = bound;
+        }
+
+        boolean solved() {
+            return solution.get() != null;
+        }
+
+        void offer(int f) {
+            if (f < next.get()) {
+                next.accumulateAndGet(f, Math::min);
+            }
+        }
+    }
+
+    /**
+     *  board ΪȲ SPLIT_DEPTH ʱɺ񣬷ڱ߳ԭ
+     */
+    private final class SubtreeTask extends RecursiveAction {
+        private final Round round;
+        private final PuzzleBoard board;
+        // Ŀհ׸λãڼΪ -1
+        private final int previous;
+        private final int pathCost;
+        private final int heuristic;
+        // ӳʼ״̬ board ƶ
+        private final Move[] path;
+
+        SubtreeTask(Round round, PuzzleBoard board, int previous, int pathCost, int heuristic, Move[] path) {
+            this.round = round;
+            this.board = board;
+            this.previous = previous;
+            this.pathCost = pathCost;
+            this.heuristic = heuristic;
+            this.path = path;
+        }
+
+        @Override
+        protected void compute() {
+            if (round.solved()) {
+                return;
+            }
+            if (path.length >= SPLIT_DEPTH) {
+                searchSubtree();
+                return;
+            }
+            if (problem.goal(board)) {
+                round.solution.compareAndSet(null, path);
+                return;
+            }
+            round.expanded.increment();
+
+            List<SubtreeTask> children = new ArrayList<>(BRANCHING);
+            List<Move> moves = board.moves();
+            int blank = board.getBlankIndex();
+            int next = Integer.MAX_VALUE;
+            for (Move move : moves) {
+                int target = board.neighbour(move.getDirection());
+                if (target == previous) continue;
+                round.generated.increment();
+
+                int cost = pathCost + problem.stepCost(board, move);
+                int h = childHeuristic(board, heuristic, move, target);
+                if (cost + h > round.bound) {
+                    next = Math.min(next, cost + h);
+                    continue;
+                }
+                PuzzleBoard child = board.copy();
+                child.slide(target);
+                Move[] childPath = Arrays.copyOf(path, path.length + 1);
+                childPath[path.length] = move;
+                children.add(new SubtreeTask(round, child, blank, cost, h, childPath));
+            }
+            round.offer(next);
+            // h Сܺн⣬ǰ
+            children.sort(Comparator.comparingInt(task -> task.heuristic));
+            invokeAll(children);
+        }
+
+        private void searchSubtree() {
+            Walker walker = new Walker(board, round);
+            int depth = walker.iterate(round.bound, previous, pathCost, heuristic);
+            round.expanded.add(walker.expanded);
+            round.generated.add(walker.generated);
+            round.cutoffs.add(walker.cutoffs);
+            if (depth < 0) {
+                round.offer(-depth);
+                return;
+            }
+            Move[] tail = walker.solution(depth);
+            Move[] solution = Arrays.copyOf(path, path.length + tail.length);
+            System.arraycopy(tail, 0, solution, path.length, tail.length);
+            round.solution.compareAndSet(null, solution);
+        }
+    }
+
+    /**
+     * һԭÿ߳ʹøԵʵ
+     */
+    private final class Walker {
+        // ԭĹ
+        private final PuzzleBoard board;
+        // ʱһֵ߳ʱΪ null
+        private final Round round;
+        // ûδʱΪ null 4x4 û long 룬ʹû
+        private final TranspositionTable table;
+        // ĸհ׸λãΪʼ״̬ʱΪ -1
+        private int rootPrevious;
+        private long expanded;
+        private long generated;
+        // BPMX ɵļ֦
+        private long cutoffs;
+
+        // ʽջ depth Ŀհ׸λág ֵ h ֵ ( BPMX ʱΪ̧ߺ hֻڼ֦ͻش)
+        private int[] blanks = new int[INITIAL_DEPTH];
+        private int[] pathCosts = new int[INITIAL_DEPTH];
+        private int[] heuristics = new int[INITIAL_DEPTH];
+        //  depth Ԥ hԤݴ̵ ḩߺֵ
+        private int[] rawHeuristics = new int[INITIAL_DEPTH];
+        //  depth ḷ́ h ź [depth * BRANCHING, depth * BRANCHING + childCount[depth]) 
+        private Move[] childMoves = new Move[INITIAL_DEPTH * BRANCHING];
+        private int[] childTargets = new int[INITIAL_DEPTH * BRANCHING];
+        private int[] childHeuristics = new int[INITIAL_DEPTH * BRANCHING];
+        private int[] childCount = new int[INITIAL_DEPTH];
+        //  depth һҪʵĺ
+        private int[] childNext = new int[INITIAL_DEPTH];
+        //  depth  (丸) · f ֵ½磬ʱдû
+        private int[] backed = new int[INITIAL_DEPTH];
+
+        Walker(PuzzleBoard board, Round round) {
+            this.board = board;
+            this.round = round;
+            this.table = board.hasKey() ? transpositions : null;
+        }
+
+        /**
+         *  bound ΪֵԹһʱ̻ص״̬ (ҵȡʱ)
+         * @param previous  ĸհ׸λãûʱΪ -1
+         * @param pathCost   g ֵ
+         * @param heuristic  h ֵ
+         * @return ҵʱΪԸ (Ǹ)ΪֵС f ֵȡ
+         */
+        int iterate(int bound, int previous, int pathCost, int heuristic) {
+            rootPrevious = previous;
+            pathCosts[0] = pathCost;
+            heuristics[0] = heuristic;
+            rawHeuristics[0] = heuristic;
+            if (problem.goal(board)) {
+                return 0;
+            }
+            expanded++;
+            timedExpand(0);
+
+            int depth = 0;
+            int next = Integer.MAX_VALUE;
+            if (BPMX) {
+                next = pathmax(0, bound, next);
+            }
+            while (true) {
+                if (childNext[depth] == childCount[depth]) {
+                    if (depth == 0) {
+                        return -next;
+                    }
+                    if (table != null) {
+                        retire(depth, bound);
+                    }
+                    // ݣ뵱ǰƶ
+                    depth--;
+                    board.slide(blanks[depth]);
+                    if (BPMX) {
+                        // ʱ̧ߵ h ش
+                        int raised = heuristics[depth + 1] - (pathCosts[depth + 1] - pathCosts[depth]);
+                        if (raised > heuristics[depth]) {
+                            heuristics[depth] = raised;
+                            next = cutoff(depth, bound, next);
+                        }
+                    }
+                    continue;
+                }
+
+                int child = depth * BRANCHING + childNext[depth]++;
+                generated++;
+                int stepCost = problem.stepCost(board, childMoves[child]);
+                int cost = pathCosts[depth] + stepCost;
+                int h = childHeuristics[child];
+                if (BPMX && heuristics[depth] - stepCost > h) {
+                    //  h ȥƶ۴
+                    h = heuristics[depth] - stepCost;
+                    if (cost + childHeuristics[child] <= bound && cost + h > bound) {
+                        cutoffs++;
+                    }
+                }
+                int f = cost + h;
+                if (f > bound) {
+                    next = Math.min(next, f);
+                    backed[depth] = Math.min(backed[depth], f);
+                    continue;
+                }
+
+                board.slide(childTargets[child]);
+                if (table != null && !problem.goal(board)) {
+                    long entry = table.probe(board.key());
+                    if (entry != TranspositionTable.MISSING) {
+                        int lower = cost + Math.max(h, TranspositionTable.lowerBound(entry));
+                        if (lower > bound) {
+                            // û¼½ѳֵ
+                            next = Math.min(next, lower);
+                            backed[depth] = Math.min(backed[depth], lower);
+                            board.slide(blanks[depth]);
+                            continue;
+                        }
+                        if (TranspositionTable.bound(entry) == bound && TranspositionTable.pathCost(entry) <= cost) {
+                            // ѾԲ cost  g ֵ״̬
+                            backed[depth] = Math.min(backed[depth], lower);
+                            board.slide(blanks[depth]);
+                            continue;
+                        }
+                    }
+                }
+                depth++;
+                ensureCapacity(depth);
+                pathCosts[depth] = cost;
+                heuristics[depth] = h;
+                rawHeuristics[depth] = childHeuristics[child];
+                if (problem.goal(board)) {
+                    return depth;
+                }
+                expanded++;
+                // ߳ҵʱʣ
+                if (round != null && (expanded & CANCEL_CHECK_MASK) == 0 && round.solved()) {
+                    return -next;
+                }
+                if (round == null && (expanded & PROGRESS_MASK) == 0) {
+                    metrics.progress(generated, expanded, depth);
+                }
+                timedExpand(depth);
+                if (BPMX) {
+                    next = pathmax(depth, bound, next);
+                }
+            }
+        }
+
+        /**
+         * չĵ depth 㣺̵ h ȥƶۻشֵʱĺ
+         * @return ºĳֵС f ֵ
+         */
+        private int pathmax(int depth, int bound, int next) {
+            int base = depth * BRANCHING;
+            int raised = heuristics[depth];
+            for (int i = base; i < base + childCount[depth]; i++) {
+                raised = Math.max(raised, childHeuristics[i] - problem.stepCost(board, childMoves[i]));
+            }
+            if (raised == heuristics[depth]) {
+                return next;
+            }
+            heuristics[depth] = raised;
+            return cutoff(depth, bound, next);
+        }
+
+        /**
+         *  depth  h ̧ߺ f ֵʱʣĺ
+         * @return ºĳֵС f ֵ
+         */
+        private int cutoff(int depth, int bound, int next) {
+            int f = pathCosts[depth] + heuristics[depth];
+            if (f <= bound || childNext[depth] == childCount[depth]) {
+                return next;
+            }
+            cutoffs++;
+            childNext[depth] = childCount[depth];
+            backed[depth] = Math.min(backed[depth], f);
+            return Math.min(next, f);
+        }
+
+        private void timedExpand(int depth) {
+            if (!SearchMetrics.PHASE_TIMING) {
+                expand(depth);
+                return;
+            }
+            long start = System.nanoTime();
+            expand(depth);
+            metrics.addSuccessorTime(System.nanoTime() - start);
+        }
+
+        /**
+         *  depth ꣬ĿĴ½дû f ½ش
+         * ʱ˻صƶ㵽Ŀ·ֻ (ƶ +  h) ½
+         */
+        private void retire(int depth, int bound) {
+            int pathCost = pathCosts[depth];
+            int subtree = Math.max(backed[depth], pathCost + heuristics[depth]);
+            backed[depth - 1] = Math.min(backed[depth - 1], subtree);
+
+            int viaParent = pathCost - pathCosts[depth - 1] + heuristics[depth - 1];
+            int lower = Math.max(heuristics[depth], Math.min(subtree - pathCost, viaParent));
+            table.store(board.key(), pathCost, lower, bound);
+        }
+
+        /**
+         * ɵ depth ḷ́صһ h 
+         */
+        private void expand(int depth) {
+            int base = depth * BRANCHING;
+            int previous = depth > 0 ? blanks[depth - 1] : rootPrevious;
+            blanks[depth] = board.getBlankIndex();
+
+            List<Move> moves = board.moves();
+            int count = 0;
+            for (int m = 0; m < moves.size(); m++) {
+                Move move = moves.get(m);
+                int target = board.neighbour(move.getDirection());
+                if (target == previous) continue;
+                int h = childHeuristic(board, rawHeuristics[depth], move, target);
+
+                // h ͬḻ́ԭ˳
+                int i = base + count;
+                while (i > base && childHeuristics[i - 1] > h) {
+                    childMoves[i] = childMoves[i - 1];
+                    childTargets[i] = childTargets[i - 1];
+                    childHeuristics[i] = childHeuristics[i - 1];
+                    i--;
+                }
+                childMoves[i] = move;
+                childTargets[i] = target;
+                childHeuristics[i] = h;
+                count++;
+            }
+            childCount[depth] = count;
+            childNext[depth] = 0;
+            backed[depth] = Integer.MAX_VALUE;
+        }
+
+        /**
+         * ջм¼ĴӸ depth ƶ
+         */
+        Move[] solution(int depth) {
+            Move[] moves = new Move[depth];
+            for (int i = 0; i < depth; i++) {
+                moves[i] = childMoves[i * BRANCHING + childNext[i] - 1];
+            }
+            return moves;
+        }
+
+        private void ensureCapacity(int depth) {
+            if (depth < blanks.length) return;
+            int capacity = blanks.length * 2;
+            blanks = Arrays.copyOf(blanks, capacity);
+            pathCosts = Arrays.copyOf(pathCosts, capacity);
+            heuristics = Arrays.copyOf(heuristics, capacity);
+            rawHeuristics = Arrays.copyOf(rawHeuristics, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+            childNext = Arrays.copyOf(childNext, capacity);
+            backed = Arrays.copyOf(backed, capacity);
+            childMoves = Arrays.copyOf(childMoves, capacity * BRANCHING);
+            childTargets = Arrays.copyOf(childTargets, capacity * BRANCHING);
+            childHeuristics = Arrays.copyOf(childHeuristics, capacity * BRANCHING);
+        }
+    }
+}
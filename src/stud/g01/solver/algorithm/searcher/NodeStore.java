@@ -0,0 +1,57 @@
+package stud.g01.solver.algorithm.searcher;
+
+/**
+ * յĽ洢CompactAStar  Node 
+ * ÿһ int ¼״̬ghýƶԼǷչ
+ * ͬʱ״̬Ϊظ⡣˳ 0 ʼš
+ * ʵжڵ ArrayNodeStore Ͷ OffHeapNodeStore
+ */
+interface NodeStore {
+
+    // ûн㣺ĸ㣬Լ find() Ҳʱķֵ
+    int NONE = -1;
+    // ƶ±
+    int ROOT_MOVE = 0x7;
+
+    /**
+     * һ㣬ǰӦ find() ȷϸ״̬ڴ洢
+     * @param state     ״̬
+     * @param parent    Ϊ NONE
+     * @param pathCost  g ֵ
+     * @param heuristic h ֵ
+     * @param move      ýƶڸ״̬ moves() е±꣬Ϊ ROOT_MOVE
+     * @return ½ľ
+     */
+    int add(long state, int parent, int pathCost, int heuristic, int move);
+
+    /**
+     * @return ״̬Ϊ state ĽʱΪ NONE
+     */
+    int find(long state);
+
+    /**
+     * ԸС g µеĽ㣺Ϊµĸ gչĽ´
+     */
+    void update(int node, int parent, int pathCost, int move);
+
+    long state(int node);
+
+    int parent(int node);
+
+    int pathCost(int node);
+
+    int heuristic(int node);
+
+    int move(int node);
+
+    boolean closed(int node);
+
+    void close(int node);
+
+    int size();
+
+    /**
+     * մ洢ͷռõڴ棬ÿʼͽʱ
+     */
+    void clear();
+}
@@ -0,0 +1,106 @@
+package stud.g01.solver.algorithm.searcher;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * ڴɸ 1MB ֱӻ (ҳ) ɣ long ַֽѰַ
+ * ַĸλҳţ PAGE_BITS λҳƫƣ֤߱һζдҳ (¼СҳС)
+ * ҳеҳƶƣֻÿҳһ ByteBuffer GC ĸ޹ء
+ * release() 黹ȫҳڴ棬 GC  ByteBuffer 
+ * ֱڴ -XX:MaxDirectMemorySize ƣδʱ -Xmx ͬ
+ */
+final class OffHeapArena {
+
+    static final int PAGE_BITS = 20;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    // ͷһֱӻ (sun.misc.Unsafe.invokeCleaner)JVM ṩʱʲôҲ GC 
+    private static final Consumer<ByteBuffer> FREE = cleaner();
+
+    private ByteBuffer[] pages = new ByteBuffer[16];
+    private int count;
+
+    /**
+     * ַ֤ [0, bytes) ãҳΪ 0
+     */
+    void ensureCapacity(long bytes) {
+        while ((long) count << PAGE_BITS < bytes) {
+            if (count == pages.length) {
+                pages = Arrays.copyOf(pages, count * 2);
+            }
+            pages[count++] = ByteBuffer.allocateDirect(PAGE_SIZE).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    long capacity() {
+        return (long) count << PAGE_BITS;
+    }
+
+    long getLong(long address) {
+        return pages[(int) (address >>> PAGE_BITS)].getLong((int) address & PAGE_MASK);
+    }
+
+    void putLong(long address, long value) {
+        pages[(int) (address >>> PAGE_BITS)].putLong((int) address & PAGE_MASK, value);
+    }
+
+    int getInt(long address) {
+        return pages[(int) (address >>> PAGE_BITS)].getInt((int) address & PAGE_MASK);
+    }
+
+    void putInt(long address, int value) {
+        pages[(int) (address >>> PAGE_BITS)].putInt((int) address & PAGE_MASK, value);
+    }
+
+    short getShort(long address) {
+        return pages[(int) (address >>> PAGE_BITS)].getShort((int) address & PAGE_MASK);
+    }
+
+    void putShort(long address, short value) {
+        pages[(int) (address >>> PAGE_BITS)].putShort((int) address & PAGE_MASK, value);
+    }
+
+    byte getByte(long address) {
+        return pages[(int) (address >>> PAGE_BITS)].get((int) address & PAGE_MASK);
+    }
+
+    void putByte(long address, byte value) {
+        pages[(int) (address >>> PAGE_BITS)].put((int) address & PAGE_MASK, value);
+    }
+
+    /**
+     * 黹ȫҳڴ棬֮ ensureCapacity() ʹ
+     */
+    void release() {
+        for (int i = 0; i < count; i++) {
+            FREE.accept(pages[i]);
+            pages[i] = null;
+        }
+        count = 0;
+    }
+
+    private static Consumer<ByteBuffer> cleaner() {
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            Method invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+            return buffer -> {
+                try {
+                    invokeCleaner.invoke(unsafe, buffer);
+                } catch (ReflectiveOperationException e) {
+                    // ͷʧʱ GC 
+                }
+            };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return buffer -> { };
+        }
+    }
+}
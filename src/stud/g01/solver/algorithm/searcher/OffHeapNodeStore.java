@@ -0,0 +1,157 @@
+package stud.g01.solver.algorithm.searcher;
+
+/**
+ * Ľս洢¼ظĹϣ OffHeapArena 
+ * ÿһ 16 ֽڵļ¼˳׷ӣ
+ * [0, 8) ״̬[8, 12) [12, 14) g[14] h (޷)[15] ƶ±չǡ
+ * ϣΪѰַ (̽)ÿ 4 ֽڣž + 10 ΪղۣװӲ 1/2
+ * ʱµڴؽ漴黹ɱڴ档
+ * g  Short.MAX_VALUEh  255 (N-Puzzle ֵԶСڴ)
+ */
+final class OffHeapNodeStore implements NodeStore {
+
+    private static final int RECORD_BYTES = 16;
+    private static final int PARENT = 8;
+    private static final int PATH_COST = 12;
+    private static final int HEURISTIC = 14;
+    private static final int FLAGS = 15;
+
+    // FLAGS ֽڣ 3 λΪƶ±꣬CLOSED λչ
+    private static final int MOVE_MASK = 0x7;
+    private static final int CLOSED = 0x8;
+
+    private static final int SLOT_BYTES = 4;
+    private static final long INITIAL_SLOTS = 1 << 16;
+
+    private final OffHeapArena records = new OffHeapArena();
+    private OffHeapArena index = new OffHeapArena();
+    private long slots;
+    private long mask;
+    private int size;
+
+    @Override
+    public int add(long state, int parent, int pathCost, int heuristic, int move) {
+        if (heuristic > 0xFF) {
+            throw new IllegalArgumentException("OffHeapNodeStore  h ֵܳ 255: " + heuristic);
+        }
+        int node = size;
+        long address = (long) node * RECORD_BYTES;
+        records.ensureCapacity(address + RECORD_BYTES);
+        records.putLong(address, state);
+        records.putInt(address + PARENT, parent);
+        records.putShort(address + PATH_COST, (short) pathCost);
+        records.putByte(address + HEURISTIC, (byte) heuristic);
+        records.putByte(address + FLAGS, (byte) move);
+        size++;
+
+        if (slots == 0) {
+            rehash(INITIAL_SLOTS);
+        } else if ((long) size * 2 > slots) {
+            rehash(slots << 1);
+        }
+        index.putInt(emptySlot(state) * SLOT_BYTES, node + 1);
+        return node;
+    }
+
+    @Override
+    public int find(long state) {
+        if (slots == 0) {
+            return NONE;
+        }
+        long slot = slotOf(state);
+        int entry;
+        while ((entry = index.getInt(slot * SLOT_BYTES)) != 0) {
+            if (state(entry - 1) == state) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NONE;
+    }
+
+    @Override
+    public void update(int node, int parent, int pathCost, int move) {
+        long address = (long) node * RECORD_BYTES;
+        records.putInt(address + PARENT, parent);
+        records.putShort(address + PATH_COST, (short) pathCost);
+        records.putByte(address + FLAGS, (byte) move);
+    }
+
+    @Override
+    public long state(int node) {
+        return records.getLong((long) node * RECORD_BYTES);
+    }
+
+    @Override
+    public int parent(int node) {
+        return records.getInt((long) node * RECORD_BYTES + PARENT);
+    }
+
+    @Override
+    public int pathCost(int node) {
+        return records.getShort((long) node * RECORD_BYTES + PATH_COST);
+    }
+
+    @Override
+    public int heuristic(int node) {
+        return records.getByte((long) node * RECORD_BYTES + HEURISTIC) & 0xFF;
+    }
+
+    @Override
+    public int move(int node) {
+        return records.getByte((long) node * RECORD_BYTES + FLAGS) & MOVE_MASK;
+    }
+
+    @Override
+    public boolean closed(int node) {
+        return (records.getByte((long) node * RECORD_BYTES + FLAGS) & CLOSED) != 0;
+    }
+
+    @Override
+    public void close(int node) {
+        long address = (long) node * RECORD_BYTES + FLAGS;
+        records.putByte(address, (byte) (records.getByte(address) | CLOSED));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 黹¼͹ϣȫڴ
+     */
+    @Override
+    public void clear() {
+        records.release();
+        index.release();
+        slots = 0;
+        mask = 0;
+        size = 0;
+    }
+
+    private void rehash(long capacity) {
+        OffHeapArena old = index;
+        index = new OffHeapArena();
+        index.ensureCapacity(capacity * SLOT_BYTES);
+        slots = capacity;
+        mask = capacity - 1;
+        // ¼Ľ add() Լ
+        for (int node = 0; node < size - 1; node++) {
+            index.putInt(emptySlot(state(node)) * SLOT_BYTES, node + 1);
+        }
+        old.release();
+    }
+
+    private long emptySlot(long state) {
+        long slot = slotOf(state);
+        while (index.getInt(slot * SLOT_BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private long slotOf(long state) {
+        return ((state * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,84 @@
+package stud.g01.solver.algorithm.searcher;
+
+/**
+ *  open  OffHeapArena еĶС
+ * ÿһ long 32 λΪ f 32 λΪ (Integer.MAX_VALUE - )
+ * f ͬʱ (ɵ) ȡ CompactAStar ͰںȳĴӽ
+ */
+final class OffHeapOpenList implements OpenList {
+
+    private static final int ENTRY_BYTES = 8;
+
+    private final OffHeapArena heap = new OffHeapArena();
+    private long size;
+
+    @Override
+    public void push(int node, int key) {
+        heap.ensureCapacity((size + 1) * ENTRY_BYTES);
+        long entry = (long) key << 32 | (Integer.MAX_VALUE - node);
+        // ϸ
+        long i = size++;
+        while (i > 0) {
+            long parent = (i - 1) >>> 1;
+            long above = heap.getLong(parent * ENTRY_BYTES);
+            if (above <= entry) {
+                break;
+            }
+            heap.putLong(i * ENTRY_BYTES, above);
+            i = parent;
+        }
+        heap.putLong(i * ENTRY_BYTES, entry);
+    }
+
+    @Override
+    public int minKey() {
+        return (int) (heap.getLong(0) >>> 32);
+    }
+
+    @Override
+    public int pop() {
+        long top = heap.getLong(0);
+        long last = heap.getLong(--size * ENTRY_BYTES);
+        // һӸ³
+        long i = 0;
+        while (true) {
+            long child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            long smaller = heap.getLong(child * ENTRY_BYTES);
+            if (child + 1 < size) {
+                long right = heap.getLong((child + 1) * ENTRY_BYTES);
+                if (right < smaller) {
+                    smaller = right;
+                    child++;
+                }
+            }
+            if (last <= smaller) {
+                break;
+            }
+            heap.putLong(i * ENTRY_BYTES, smaller);
+            i = child;
+        }
+        if (size > 0) {
+            heap.putLong(i * ENTRY_BYTES, last);
+        }
+        return Integer.MAX_VALUE - (int) top;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        heap.release();
+        size = 0;
+    }
+}
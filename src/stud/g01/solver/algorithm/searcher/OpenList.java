@@ -0,0 +1,29 @@
+package stud.g01.solver.algorithm.searcher;
+
+/**
+ * CompactAStar  open  NodeStore ľ f Сȡ
+ * ͬһԸС f ·ʱɾɵһݣڵľɵȡʱ
+ */
+interface OpenList {
+
+    void push(int node, int key);
+
+    /**
+     * @return һȡľ f ֵopen Ϊ
+     */
+    int minKey();
+
+    /**
+     * ȡ f Сľǰȵ minKey()
+     */
+    int pop();
+
+    boolean isEmpty();
+
+    long size();
+
+    /**
+     *  open ͷռõڴ棬ÿʼͽʱ
+     */
+    void clear();
+}
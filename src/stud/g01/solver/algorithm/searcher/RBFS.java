@@ -0,0 +1,110 @@
+package stud.g01.solver.algorithm.searcher;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.algorithm.searcher.SearchMetrics;
+import core.solver.queue.Node;
+
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * ݹ RBFS (Recursive Best-First Search, Korf 1993)
+ *
+ * ֻ浱ǰ··ϸḷ́ڴȳԹϵ
+ * ÿ̴һش f ֵ FС f
+ * һϷݹ F Сḷ́ϽȡǰϽС F нСߣ
+ *  F Ͻʱ (شµ F)תȥ̡
+ * ɲʱҵĽŽ⣬ɡ
+ */
+public class RBFS extends AbstractSearcher {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+    // ÿչô㷢һν
+    private static final int PROGRESS_MASK = (1 << 16) - 1;
+
+    private final Predictor predictor;
+    // ʵʹõԤ򿪷ֽ׶μʱʱΪۼƹֵʱİװ
+    private Predictor estimator;
+    private Problem problem;
+    private Node answer;
+
+    public RBFS(Predictor predictor) {
+        super(null);
+        if (predictor == null) {
+            throw new IllegalArgumentException("RBFS Ҫһ Predictor ()");
+        }
+        this.predictor = predictor;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        this.problem = problem;
+        nodesGenerated = 1;
+        nodesExpanded = 0;
+        answer = null;
+        estimator = metrics.timed(predictor);
+
+        Node root = problem.root(estimator);
+        search(root, root.evaluation(), INFINITY);
+        return answer == null ? null : generatePath(answer);
+    }
+
+    /**
+     *  node Ϊ
+     * @param node  ĸ
+     * @param value node Ļش f ֵ
+     * @param bound Ͻ磬 f ֵʱ
+     * @return µĻش f ֵҵʱ answer Ϊ null
+     */
+    private int search(Node node, int value, int bound) {
+        if (problem.goal(node.getState())) {
+            answer = node;
+            return value;
+        }
+        nodesExpanded++;
+        if ((nodesExpanded & PROGRESS_MASK) == 0) {
+            metrics.progress(nodesGenerated, nodesExpanded, node.getPathCost());
+        }
+
+        long start = SearchMetrics.PHASE_TIMING ? System.nanoTime() : 0;
+        List<Node> children = problem.childNodes(node, estimator);
+        nodesGenerated += children.size();
+        // ߻ͷ·ȥص״̬ĺ
+        if (node.getParent() != null) {
+            State back = node.getParent().getState();
+            children.removeIf(child -> child.getState().equals(back));
+        }
+        if (SearchMetrics.PHASE_TIMING) metrics.addSuccessorTime(System.nanoTime() - start);
+        if (children.isEmpty()) {
+            return INFINITY;
+        }
+
+        // node  (شֵ f) ʱ̵ F Ϊشֵ
+        int[] values = new int[children.size()];
+        for (int i = 0; i < values.length; i++) {
+            int f = children.get(i).evaluation();
+            values[i] = node.evaluation() < value ? Math.max(value, f) : f;
+        }
+
+        while (true) {
+            int best = 0;
+            for (int i = 1; i < values.length; i++) {
+                if (values[i] < values[best]) best = i;
+            }
+            if (values[best] > bound) {
+                return values[best];
+            }
+            int alternative = INFINITY;
+            for (int i = 0; i < values.length; i++) {
+                if (i != best && values[i] < alternative) alternative = values[i];
+            }
+            values[best] = search(children.get(best), values[best], Math.min(bound, alternative));
+            if (answer != null) {
+                return values[best];
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package stud.g01.solver.algorithm.searcher;
+
+import core.problem.Problem;
+import core.problem.State;
+import core.solver.algorithm.heuristic.Predictor;
+import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.algorithm.searcher.SearchMetrics;
+import core.solver.queue.Node;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * ڴ޵ A* 㷨 SMA* (Simplified Memory-bounded A*, Russell 1992)
+ *
+ *  A* һչ f СҶ (f ͬʱȡµ)ڴౣ maxNodes 㡣
+ * ʱɾ f Ҷ (f ͬʱȡǳɵ) f ֵڸ (forgotten)
+ * ½ open ֱ·ȥ类ɾʱ
+ * չѺС f (ɾ̵ f) شԼȡ
+ * ̵ f ȡ max(g + h,  f)֤·
+ *
+ * ͼֻȥص״̬ḷ́ȳڴɵʱҲ⡣
+ * Ҫͬʱȡ f С f Ľ㣬Frontier ӿֻȡף open Ҷһ򼯺ϡ
+ * ڴ޿ -Dnpuzzle.sma.nodes=N ãĬ 2^20 㡣
+ */
+public class SMAStar extends AbstractSearcher {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int DEFAULT_MAX_NODES = Integer.getInteger("npuzzle.sma.nodes", 1 << 20);
+    // ÿչôһ open ڴֵ
+    private static final int PROGRESS_MASK = (1 << 10) - 1;
+
+    // open key Сµǰ
+    private static final Comparator<Entry> OPEN_ORDER = (a, b) -> a.key() != b.key()
+            ? Integer.compare(a.key(), b.key()) : newerFirst(a, b);
+    // Ҷ㣺f ǳɵں
+    private static final Comparator<Entry> LEAF_ORDER = (a, b) -> a.f != b.f
+            ? Integer.compare(a.f, b.f) : newerFirst(a, b);
+
+    private final Predictor predictor;
+    private final int maxNodes;
+
+    private final TreeSet<Entry> open = new TreeSet<>(OPEN_ORDER);
+    // ڴûк̵ķǸ㣬ɾʱѡȡ
+    private final TreeSet<Entry> leaves = new TreeSet<>(LEAF_ORDER);
+    private int stored;
+    private long sequence;
+
+    /**
+     * ʹ -Dnpuzzle.sma.nodes õڴ
+     */
+    public SMAStar(Predictor predictor) {
+        this(predictor, DEFAULT_MAX_NODES);
+    }
+
+    /**
+     * @param predictor 
+     * @param maxNodes  ڴౣĽ
+     */
+    public SMAStar(Predictor predictor, int maxNodes) {
+        super(null);
+        if (predictor == null) {
+            throw new IllegalArgumentException("SMAStar Ҫһ Predictor ()");
+        }
+        if (maxNodes < 2) {
+            throw new IllegalArgumentException("SMAStar Ҫ 2 : " + maxNodes);
+        }
+        this.predictor = predictor;
+        this.maxNodes = maxNodes;
+    }
+
+    @Override
+    public Deque<Node> search(Problem problem) {
+        open.clear();
+        leaves.clear();
+        stored = 0;
+        sequence = 0;
+        nodesGenerated = 1;
+        nodesExpanded = 0;
+        Predictor predictor = metrics.timed(this.predictor);
+
+        Node rootNode = problem.root(predictor);
+        Entry root = new Entry(rootNode, null, 0, sequence++);
+        root.f = rootNode.evaluation();
+        open.add(root);
+        stored = 1;
+
+        try {
+            while (!open.isEmpty()) {
+                Entry best = open.pollFirst();
+                if (best.key() == INFINITY) {
+                    return null;
+                }
+                if (!best.expanded && problem.goal(best.node.getState())) {
+                    return generatePath(best.node);
+                }
+                expand(problem, predictor, best);
+                while (stored > maxNodes) {
+                    evict();
+                }
+                if ((nodesExpanded & PROGRESS_MASK) == 0) {
+                    metrics.observeFrontier(open.size());
+                    metrics.observeExplored(stored);
+                    metrics.progress(nodesGenerated, nodesExpanded, open.size());
+                }
+            }
+            return null;
+        } finally {
+            metrics.observeFrontier(open.size());
+            metrics.observeExplored(stored);
+        }
+    }
+
+    /**
+     * չ entry (Ѵ open ȡ)һչʱọ̈̄
+     * չʱֻѱɾḷ́Ȼش f ֵ
+     */
+    private void expand(Problem problem, Predictor predictor, Entry entry) {
+        nodesExpanded++;
+        long start = SearchMetrics.PHASE_TIMING ? System.nanoTime() : 0;
+        List<Node> children = problem.childNodes(entry.node, predictor);
+        nodesGenerated += children.size();
+        if (SearchMetrics.PHASE_TIMING) metrics.addSuccessorTime(System.nanoTime() - start);
+
+        // ɾĺ̵ f С forgottenʱΪ½
+        int floor = entry.expanded ? Math.max(entry.f, entry.forgotten) : entry.f;
+        State back = entry.parent == null ? null : entry.parent.node.getState();
+        if (entry.children.isEmpty() && entry.parent != null) {
+            leaves.remove(entry);
+        }
+        for (Node child : children) {
+            State state = child.getState();
+            if (state.equals(back) || entry.hasChild(state)) {
+                continue;
+            }
+            Entry successor = new Entry(child, entry, entry.depth + 1, sequence++);
+            // ڴװ±·ĿԶ޷
+            successor.f = successor.depth >= maxNodes - 1 && !problem.goal(state)
+                    ? INFINITY : Math.max(child.evaluation(), floor);
+            entry.children.add(successor);
+            open.add(successor);
+            leaves.add(successor);
+            stored++;
+        }
+        entry.expanded = true;
+        entry.forgotten = INFINITY;
+
+        if (entry.children.isEmpty()) {
+            // ûпõḷ́㣬Ϊ f Ҷȴɾ
+            entry.f = INFINITY;
+            if (entry.parent != null) {
+                leaves.add(entry);
+            }
+            backup(entry.parent);
+        } else {
+            backup(entry);
+        }
+    }
+
+    /**
+     *  entry ʼϻش f ȡڴкɾ̵ f Сֱֵ f ٱ仯
+     */
+    private void backup(Entry entry) {
+        while (entry != null && !entry.children.isEmpty()) {
+            int f = entry.forgotten;
+            for (Entry child : entry.children) {
+                f = Math.min(f, child.f);
+            }
+            if (f == entry.f) {
+                return;
+            }
+            // к̵Ľ㲻Ҷ㼯Уopen  forgotten 򣬿ֱ޸ f
+            entry.f = f;
+            entry = entry.parent;
+        }
+    }
+
+    /**
+     * ɾ f Ҷ㣬 f ڸϣ½ open 
+     */
+    private void evict() {
+        Entry worst = leaves.pollLast();
+        open.remove(worst);
+        stored--;
+
+        Entry parent = worst.parent;
+        open.remove(parent);
+        parent.children.remove(worst);
+        parent.forgotten = Math.min(parent.forgotten, worst.f);
+        if (parent.forgotten != INFINITY) {
+            open.add(parent);
+        }
+        if (parent.children.isEmpty() && parent.parent != null) {
+            leaves.add(parent);
+        }
+    }
+
+    // ǰͬʱµǰ
+    private static int newerFirst(Entry a, Entry b) {
+        return a.depth != b.depth ? Integer.compare(b.depth, a.depth) : Long.compare(b.sequence, a.sequence);
+    }
+
+    /**
+     * ڴеһ
+     */
+    private static final class Entry {
+        final Node node;
+        final Entry parent;
+        final int depth;
+        // ˳¾
+        final long sequence;
+        // ش f ֵ
+        int f;
+        // ɾĺС fûʱΪ
+        int forgotten = INFINITY;
+        boolean expanded;
+        final List<Entry> children = new ArrayList<>(4);
+
+        Entry(Node node, Entry parent, int depth, long sequence) {
+            this.node = node;
+            this.parent = parent;
+            this.depth = depth;
+            this.sequence = sequence;
+        }
+
+        /**
+         *  open еݣδչĽΪ fչĽΪ forgotten (ȴɵĺ)
+         */
+        int key() {
+            return expanded ? forgotten : f;
+        }
+
+        boolean hasChild(State state) {
+            for (Entry child : children) {
+                if (child.node.getState().equals(state)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package stud.g01.solver.algorithm.searcher;
+
+import java.util.Arrays;
+
+/**
+ * IDA* ʹõĶû
+ * ÿ¼һ״̬ g ֵĿ۵½磬Լʱֵ
+ * ռ long(key ^ data, data)4 һ 64 ֽڵͰһУ
+ * һֻ̽һͰ߳زдд뱻˺ѵı key ^ data У鲻ͨڡ
+ * ڹʱȷҲͰʱ滻ԸǾɱ
+ */
+final class TranspositionTable {
+
+    // ûҵʱ probe ķֵ
+    static final long MISSING = 0L;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_LONGS = ENTRY_LONGS * BUCKET_ENTRIES;
+    private static final int BUCKET_BYTES = BUCKET_LONGS * Long.BYTES;
+    // long[] ĳȲܳ 2^31Ͱȡ 2^27 (8GB)
+    private static final int MAX_BUCKET_BITS = 27;
+
+    // data Ĳ֣ 16 λ g 16 λ½磬 16 λֵ 48 λǱЧ
+    private static final int FIELD_BITS = 16;
+    private static final int FIELD_MASK = 0xFFFF;
+    private static final long VALID = 1L << (3 * FIELD_BITS);
+
+    private final long[] slots;
+    private final int bucketBits;
+
+    /**
+     * @param bytes ռڴޣʵȡ 2 
+     */
+    TranspositionTable(long bytes) {
+        long buckets = Math.max(bytes / BUCKET_BYTES, 2);
+        bucketBits = Math.min(63 - Long.numberOfLeadingZeros(buckets), MAX_BUCKET_BITS);
+        slots = new long[BUCKET_LONGS << bucketBits];
+    }
+
+    /**
+     * @param key ״̬
+     * @return ״̬ıݣʱΪ MISSINGֶ pathCostlowerBoundbound ȡ
+     */
+    long probe(long key) {
+        int base = bucketOf(key);
+        for (int i = base; i < base + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = slots[i + 1];
+            if (data != MISSING && (slots[i] ^ data) == key) {
+                return data;
+            }
+        }
+        return MISSING;
+    }
+
+    /**
+     * ¼һ״̬
+     * ͬһ״̬бʱϲ½ȡϴߣͬһֵ±С g
+     * ѡձ滻ȼ͵ı
+     * @param key        ״̬
+     * @param pathCost   ״̬ʱ g ֵ
+     * @param lowerBound ״̬ĿĴ½
+     * @param bound      ״̬ʱֵ
+     */
+    void store(long key, int pathCost, int lowerBound, int bound) {
+        if (pathCost > FIELD_MASK || lowerBound > FIELD_MASK || bound > FIELD_MASK) {
+            return;
+        }
+        int base = bucketOf(key);
+        int victim = base;
+        int victimPriority = Integer.MAX_VALUE;
+        for (int i = base; i < base + BUCKET_LONGS; i += ENTRY_LONGS) {
+            long data = slots[i + 1];
+            if (data == MISSING) {
+                victim = i;
+                break;
+            }
+            if ((slots[i] ^ data) == key) {
+                lowerBound = Math.max(lowerBound, lowerBound(data));
+                if (bound(data) == bound && pathCost(data) < pathCost) {
+                    pathCost = pathCost(data);
+                }
+                victim = i;
+                break;
+            }
+            int priority = priority(data, bound);
+            if (priority < victimPriority) {
+                victim = i;
+                victimPriority = priority;
+            }
+        }
+        long data = VALID | ((long) bound << (2 * FIELD_BITS)) | ((long) lowerBound << FIELD_BITS) | pathCost;
+        slots[victim] = key ^ data;
+        slots[victim + 1] = data;
+    }
+
+    /**
+     * бһǰ
+     */
+    void clear() {
+        Arrays.fill(slots, 0L);
+    }
+
+    static int pathCost(long data) {
+        return (int) data & FIELD_MASK;
+    }
+
+    static int lowerBound(long data) {
+        return (int) (data >>> FIELD_BITS) & FIELD_MASK;
+    }
+
+    static int bound(long data) {
+        return (int) (data >>> (2 * FIELD_BITS)) & FIELD_MASK;
+    }
+
+    /**
+     * 滻ԣ̭ǰֵµı̭ʣ (bound - g) С
+     * С۵͵ı
+     */
+    private static int priority(long data, int bound) {
+        int current = bound(data) == bound ? 1 << FIELD_BITS : 0;
+        return current + Math.max(bound(data) - pathCost(data), 0);
+    }
+
+    private int bucketOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - bucketBits)) * BUCKET_LONGS;
+    }
+}
@@ -4,6 +4,8 @@ import core.problem.Problem;
 import core.problem.State;
 import core.solver.algorithm.heuristic.Predictor;
 import core.solver.algorithm.searcher.AbstractSearcher;
+import core.solver.algorithm.searcher.SearchMetrics;
+import core.solver.queue.ExploredSet;
 import core.solver.queue.Frontier;
 import core.solver.queue.Node;
 
@@ -11,8 +13,16 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.List;
 
+/**
+ * A* 㷨
+ * explored мÿ״̬չʱ g ֵԸС g ٴεչ״̬ʱ´򿪲չ
+ * ɲɵһʱ (ģʽݿ) ҵŽ⡣һʱᷢ´򿪡
+ */
 public class aStar extends AbstractSearcher {
 
+    // ÿչôһ frontier/explored ֵ
+    private static final int PROGRESS_MASK = (1 << 10) - 1;
+
     private final Predictor predictor;
 
     public aStar(Frontier frontier, Predictor predictor) {
@@ -29,21 +39,27 @@ public class aStar extends AbstractSearcher {
         explored.clear();
         nodesGenerated = 0;
         nodesExpanded = 0;
+        boolean timing = SearchMetrics.PHASE_TIMING;
+        Predictor predictor = metrics.timed(this.predictor);
         // ȡڵ㲢 Frontier
-        Node startNode = problem.root(this.predictor);
+        Node startNode = problem.root(predictor);
         frontier.offer(startNode);
         nodesGenerated = 1;
 
         // ѭֱ Frontier Ϊ
         while (!frontier.isEmpty()) {
             //  f-score ͵Ľڵ
+            long start = timing ? System.nanoTime() : 0;
             Node currentNode = frontier.poll();
+            if (timing) metrics.addFrontierTime(System.nanoTime() - start);
             State currentState = currentNode.getState();
 
             //    Ƿ explored  (ֹظչ)
             //    ע⣺һȻǱҪģFrontier ֹ frontier ڲظ
             //    explored ֹǶѾĽڵظչ
-            if (explored.contains(currentState)) {
+            //    ԸС g չ״̬ʱ´
+            int closedCost = explored.pathCost(currentState);
+            if (closedCost != ExploredSet.ABSENT && closedCost <= currentNode.getPathCost()) {
                 continue;
             }
 
@@ -52,19 +68,28 @@ public class aStar extends AbstractSearcher {
                 return buildPath(currentNode); // ҵ⣬·
             }
 
-            // ǰڵ explored ϣչ
-            explored.add(currentState);
+            // ǰڵͬ g ֵ explored ϣչ
+            explored.close(currentState, currentNode.getPathCost());
             nodesExpanded++;
+            if ((nodesExpanded & PROGRESS_MASK) == 0) {
+                metrics.observeFrontier(frontier.size());
+                metrics.observeExplored(explored.size());
+                metrics.progress(nodesGenerated, nodesExpanded, frontier.size());
+            }
 
-            List<Node> children = problem.childNodes(currentNode, this.predictor);
+            start = timing ? System.nanoTime() : 0;
+            List<Node> children = problem.childNodes(currentNode, predictor);
             nodesGenerated += children.size();
+            if (timing) metrics.addSuccessorTime(System.nanoTime() - start);
 
             // ӽڵ㽻ܵġ Frontier 
+            start = timing ? System.nanoTime() : 0;
             for (Node child : children) {
                 // Ҫκ if-else жϣֱ offer
                 // PqFrontier ڲԶ
                 frontier.offer(child);
             }
+            if (timing) metrics.addFrontierTime(System.nanoTime() - start);
         }
 
         // ʧ
@@ -1,6 +1,7 @@
 package stud.problem.pathfinding;
 
 import core.problem.Action;
+import core.problem.PackedState;
 import core.problem.State;
 import core.solver.algorithm.heuristic.HeuristicType;
 import core.solver.algorithm.heuristic.Predictor;
@@ -17,7 +18,7 @@ import static stud.problem.pathfinding.Direction.SCALE;
  * PathFinding问题的状态
  * 位置状态，表示寻路机器人在什么位置
  */
-public class Position extends State {
+public class Position extends State implements PackedState {
 
     //机器人在场地中的位置: (行，列)
     private final int row;
@@ -111,6 +112,12 @@ public class Position extends State {
         return row << 3 | col;
     }
 
+    //行号放在高 32 位，列号放在低 32 位
+    @Override
+    public long key() {
+        return (long) row << 32 | (col & 0xFFFFFFFFL);
+    }
+
     @Override
     public String toString() {
         return "(" + row + "," + col + ")";